@@ -0,0 +1,56 @@
+package com.cosmetics.ecommerce.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Orders, order items, products and chat messages take their ids from
+ * pooled-lo sequence tables (MySQL and MariaDB under MySQLDialect have no
+ * native sequences) so Hibernate can batch their inserts. Tables that were
+ * filled while ids came from AUTO_INCREMENT would otherwise hand out ids that
+ * already exist, so on startup each sequence is moved past the highest id in
+ * its table.
+ *
+ * This runs after Hibernate has started, so it relies on the sequence tables
+ * existing by then. Profiles with {@code ddl-auto: update} let Hibernate
+ * create them; schema-validated profiles create and seed them beforehand with
+ * {@code db/id-sequences.sql}.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class IdSequenceInitializer {
+
+    // sequence table -> entity table
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "orders_seq", "orders",
+            "order_items_seq", "order_items",
+            "products_seq", "products",
+            "chat_messages_seq", "chat_messages"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void alignSequences() {
+        // With native sequences Hibernate doesn't use the *_seq tables
+        boolean nativeSequences = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport().supportsSequences();
+        if (nativeSequences) {
+            return;
+        }
+
+        SEQUENCES.forEach((sequence, table) -> jdbcTemplate.update(
+                "UPDATE " + sequence + " SET next_val = GREATEST(next_val, " +
+                        "(SELECT COALESCE(MAX(id), 0) + 1 FROM " + table + "))"
+        ));
+    }
+}
@@ -0,0 +1,71 @@
+package com.cosmetics.ecommerce.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Counts the SQL of each request and reports it in a {@code Server-Timing}
+ * response header, e.g.
+ * {@code db;dur=3.18, db-select;desc=4, db-insert;desc=0, db-update;desc=0, db-delete;desc=0, db-rows;desc=27, db-repeated;desc=1}.
+ *
+ * The header is added just before the response is committed, so it also
+ * covers requests that write their body themselves. Requests that run one
+ * statement at least {@code app.sql-stats.repeated-warn-threshold} times are
+ * logged as N+1 suspects.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private final int repeatedWarnThreshold;
+
+    public ServerTimingFilter(int repeatedWarnThreshold) {
+        this.repeatedWarnThreshold = repeatedWarnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SqlStatementCounter.Stats stats = SqlStatementCounter.start();
+        OnCommittedResponseWrapper timedResponse = new OnCommittedResponseWrapper(response) {
+            @Override
+            protected void onResponseCommitted() {
+                writeHeader(response, stats);
+            }
+        };
+
+        try {
+            filterChain.doFilter(request, timedResponse);
+        } finally {
+            SqlStatementCounter.stop(stats);
+            if (!response.isCommitted()) {
+                writeHeader(response, stats);
+            }
+            warnIfRepeated(request, stats);
+        }
+    }
+
+    private void writeHeader(HttpServletResponse response, SqlStatementCounter.Stats stats) {
+        response.setHeader("Server-Timing", String.format(Locale.ROOT,
+                "db;dur=%.2f, db-select;desc=%d, db-insert;desc=%d, db-update;desc=%d, db-delete;desc=%d, " +
+                        "db-rows;desc=%d, db-repeated;desc=%d",
+                stats.getElapsedNanos() / 1e6, stats.getSelectCount(), stats.getInsertCount(),
+                stats.getUpdateCount(), stats.getDeleteCount(), stats.getRowCount(),
+                stats.getRepeatedExecutionCount()));
+    }
+
+    private void warnIfRepeated(HttpServletRequest request, SqlStatementCounter.Stats stats) {
+        for (Map.Entry<String, Integer> repeated : stats.getRepeatedStatements().entrySet()) {
+            if (repeated.getValue() >= repeatedWarnThreshold) {
+                System.err.println("Possible N+1: " + request.getMethod() + " " + request.getRequestURI() +
+                        " ran " + repeated.getValue() + " times: " + repeated.getKey());
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.cosmetics.ecommerce.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+
+import java.sql.ResultSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the JDBC statements, rows and database time of the current thread
+ * while a {@link Stats} scope is open on it.
+ *
+ * Registered as a listener on the proxied DataSource (see {@link SqlStatsConfig}).
+ * Scopes nest: a statement is counted in the innermost scope and in every
+ * scope around it, so a test can open one around several requests while
+ * {@link ServerTimingFilter} opens one per request. Work handed to other
+ * threads (@Async listeners, import jobs) is not counted.
+ *
+ * A statement is identified by its SQL text, whatever its parameters, so
+ * the same query run once per row of a page shows up as repeated.
+ */
+public class SqlStatementCounter implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final String STARTED_AT = "sqlStatsStartedAt";
+
+    private static final ThreadLocal<Stats> CURRENT = new ThreadLocal<>();
+
+    // Open a scope on this thread, inside the current one if there is one
+    public static Stats start() {
+        Stats stats = new Stats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    // Close the scope and return to the one around it
+    public static void stop(Stats stats) {
+        if (stats.parent != null) {
+            CURRENT.set(stats.parent);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    // The innermost open scope, or null
+    public static Stats current() {
+        return CURRENT.get();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (CURRENT.get() != null) {
+            execInfo.addCustomValue(STARTED_AT, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Stats stats = CURRENT.get();
+        Long startedAt = execInfo.getCustomValue(STARTED_AT, Long.class);
+        if (stats == null || startedAt == null) {
+            return;
+        }
+
+        // Time and affected rows go to the first query of a Statement batch
+        long elapsed = System.nanoTime() - startedAt;
+        long rows = affectedRows(execInfo.getResult());
+        for (QueryInfo queryInfo : queryInfoList) {
+            stats.record(QueryUtils.getQueryType(queryInfo.getQuery()), queryInfo.getQuery(), elapsed, rows);
+            elapsed = 0;
+            rows = 0;
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    // Rows read: every successful ResultSet.next()
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        Stats stats = CURRENT.get();
+        if (stats != null && executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            stats.addRows(1);
+        }
+    }
+
+    private long affectedRows(Object result) {
+        if (result instanceof Number) {
+            return ((Number) result).longValue();
+        }
+        if (result instanceof int[]) {
+            long rows = 0;
+            for (int count : (int[]) result) {
+                rows += Math.max(count, 0);
+            }
+            return rows;
+        }
+        return 0;
+    }
+
+    /**
+     * What one scope has executed so far. Only touched by the thread that opened it.
+     */
+    public static final class Stats {
+
+        private final Stats parent;
+
+        private int selectCount;
+        private int insertCount;
+        private int updateCount;
+        private int deleteCount;
+        private int otherCount;
+        private long rowCount;
+        private long elapsedNanos;
+
+        // SQL text -> executions, in order of first execution
+        private final Map<String, Integer> executions = new LinkedHashMap<>();
+
+        private Stats(Stats parent) {
+            this.parent = parent;
+        }
+
+        private void record(QueryType type, String sql, long elapsed, long rows) {
+            for (Stats stats = this; stats != null; stats = stats.parent) {
+                switch (type) {
+                    case SELECT -> stats.selectCount++;
+                    case INSERT -> stats.insertCount++;
+                    case UPDATE -> stats.updateCount++;
+                    case DELETE -> stats.deleteCount++;
+                    default -> stats.otherCount++;
+                }
+                stats.elapsedNanos += elapsed;
+                stats.rowCount += rows;
+                stats.executions.merge(sql, 1, Integer::sum);
+            }
+        }
+
+        private void addRows(long rows) {
+            for (Stats stats = this; stats != null; stats = stats.parent) {
+                stats.rowCount += rows;
+            }
+        }
+
+        public int getSelectCount() {
+            return selectCount;
+        }
+
+        public int getInsertCount() {
+            return insertCount;
+        }
+
+        public int getUpdateCount() {
+            return updateCount;
+        }
+
+        public int getDeleteCount() {
+            return deleteCount;
+        }
+
+        public int getStatementCount() {
+            return selectCount + insertCount + updateCount + deleteCount + otherCount;
+        }
+
+        // Rows read plus rows inserted, updated or deleted
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        // Statements executed more than once, with their execution counts
+        public Map<String, Integer> getRepeatedStatements() {
+            Map<String, Integer> repeated = new LinkedHashMap<>();
+            executions.forEach((sql, count) -> {
+                if (count > 1) {
+                    repeated.put(sql, count);
+                }
+            });
+            return Collections.unmodifiableMap(repeated);
+        }
+
+        // Executions beyond the first of every statement
+        public int getRepeatedExecutionCount() {
+            return executions.values().stream().mapToInt(count -> count - 1).sum();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.cosmetics.ecommerce.config;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Per-request SQL statistics, enabled with {@code app.sql-stats.enabled=true}.
+ * Always on in tests; in production it adds a proxy call around every JDBC
+ * call and is meant to be switched on while investigating.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sql-stats.enabled", havingValue = "true")
+public class SqlStatsConfig {
+
+    // Static so the post-processor is created before, and applies to, the DataSource
+    @Bean
+    public static BeanPostProcessor sqlStatsDataSourcePostProcessor() {
+        SqlStatementCounter counter = new SqlStatementCounter();
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(counter)
+                            .methodListener(counter)
+                            .proxyResultSet()
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Ahead of the security filters, so user lookups during authentication are counted too
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(
+            @Value("${app.sql-stats.repeated-warn-threshold:5}") int repeatedWarnThreshold) {
+        FilterRegistrationBean<ServerTimingFilter> registration =
+                new FilterRegistrationBean<>(new ServerTimingFilter(repeatedWarnThreshold));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
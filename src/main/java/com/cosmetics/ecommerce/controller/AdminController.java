@@ -29,6 +29,9 @@ class AdminController {
     private final BrandService brandService;
     private final OrderService orderService;
     private final AnalyticsService analyticsService;
+    private final SalesRollupService salesRollupService;
+    private final ProductSearchService productSearchService;
+    private final ProductFacetService productFacetService;
 
     @PostMapping("/products")
     public ResponseEntity<ProductDTO> createProduct(@Valid @RequestBody ProductRequest request) {
@@ -211,4 +214,31 @@ class AdminController {
         ) {
             return ResponseEntity.ok(analyticsService.getMonthlySalesComparison(months));
         }
+
+        /**
+         * Recompute the daily sales rollup from all orders
+         */
+        @PostMapping("/analytics/rollup/rebuild")
+        public ResponseEntity<String> rebuildSalesRollup() {
+            salesRollupService.rebuild();
+            return ResponseEntity.ok("Sales rollup rebuilt successfully");
+        }
+
+        /**
+         * Re-index every active product for keyword search
+         */
+        @PostMapping("/search/rebuild")
+        public ResponseEntity<String> rebuildSearchIndex() {
+            int indexed = productSearchService.rebuild();
+            return ResponseEntity.ok("Search index rebuilt with " + indexed + " products");
+        }
+
+        /**
+         * Reload the in-memory filter index, e.g. after categories or brands were renamed
+         */
+        @PostMapping("/search/facets/reload")
+        public ResponseEntity<String> reloadFacetIndex() {
+            int indexed = productFacetService.reload();
+            return ResponseEntity.ok("Filter index reloaded with " + indexed + " products");
+        }
     }
@@ -1,6 +1,11 @@
 package com.cosmetics.ecommerce.controller;
 
+import com.cosmetics.ecommerce.dto.ImportJobDTO;
 import com.cosmetics.ecommerce.service.BulkUploadService;
+import com.cosmetics.ecommerce.service.CatalogExportService;
+import com.cosmetics.ecommerce.service.ImportFormat;
+import com.cosmetics.ecommerce.service.ImportJobService;
+import com.cosmetics.ecommerce.service.PriceStockUpdateService;
 import lombok.RequiredArgsConstructor;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.springframework.core.io.ByteArrayResource;
@@ -10,8 +15,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -22,9 +33,13 @@ import java.util.Map;
 public class BulkUploadController {
 
     private final BulkUploadService bulkUploadService;
+    private final ImportJobService importJobService;
+    private final PriceStockUpdateService priceStockUpdateService;
+    private final CatalogExportService catalogExportService;
 
+    // Starts a background import; poll GET /jobs/{id} for progress
     @PostMapping("/products")
-    public ResponseEntity<Map<String, Object>> uploadProducts(
+    public ResponseEntity<?> uploadProducts(
             @RequestParam("file") MultipartFile file
     ) {
         try {
@@ -32,17 +47,82 @@ public class BulkUploadController {
                 return ResponseEntity.badRequest().body(Map.of("error", "File is empty"));
             }
 
-            if (!file.getOriginalFilename().endsWith(".xlsx")) {
-                return ResponseEntity.badRequest().body(Map.of("error", "Only .xlsx files are supported"));
+            if (ImportFormat.fromFileName(file.getOriginalFilename()) == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Only .xlsx, .csv and .ndjson files are supported"));
             }
 
-            Map<String, Object> result = bulkUploadService.uploadProducts(file);
-            return ResponseEntity.ok(result);
+            ImportJobDTO job = importJobService.startImport(file);
+            return ResponseEntity.accepted().body(job);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
+    // Price, discount price and stock only, keyed by product id or SKU; applied synchronously
+    @PostMapping("/price-stock")
+    public ResponseEntity<Map<String, Object>> updatePricesAndStock(
+            @RequestParam("file") MultipartFile file
+    ) {
+        Path uploadFile = null;
+        try {
+            if (file.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "File is empty"));
+            }
+
+            ImportFormat format = ImportFormat.fromFileName(file.getOriginalFilename());
+            if (format == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Only .xlsx, .csv and .ndjson files are supported"));
+            }
+
+            uploadFile = Files.createTempFile("price-stock-", format.getExtension());
+            file.transferTo(uploadFile);
+
+            return ResponseEntity.ok(priceStockUpdateService.updatePricesAndStock(uploadFile.toFile(), format));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } finally {
+            deleteQuietly(uploadFile);
+        }
+    }
+
+    // Active catalog in the upload template format, streamed as it is read
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "xlsx") String format
+    ) {
+        ImportFormat exportFormat = ImportFormat.fromFileName("export." + format);
+        if (exportFormat != ImportFormat.XLSX && exportFormat != ImportFormat.CSV) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String fileName = "products_export_" + LocalDate.now() + exportFormat.getExtension();
+        StreamingResponseBody body = exportFormat == ImportFormat.XLSX
+                ? catalogExportService::exportXlsx
+                : catalogExportService::exportCsv;
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName)
+                .contentType(exportFormat == ImportFormat.XLSX
+                        ? MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+                        : MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                .body(body);
+    }
+
+    @GetMapping("/jobs")
+    public ResponseEntity<List<ImportJobDTO>> getRecentJobs() {
+        return ResponseEntity.ok(importJobService.getRecentJobs());
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ImportJobDTO> getJob(@PathVariable Long id) {
+        return ResponseEntity.ok(importJobService.getJob(id));
+    }
+
+    @PutMapping("/jobs/{id}/cancel")
+    public ResponseEntity<ImportJobDTO> cancelJob(@PathVariable Long id) {
+        return ResponseEntity.ok(importJobService.cancelJob(id));
+    }
+
     @GetMapping("/template")
     public ResponseEntity<ByteArrayResource> downloadTemplate() {
         try {
@@ -61,4 +141,15 @@ public class BulkUploadController {
             return ResponseEntity.badRequest().build();
         }
     }
-}
\ No newline at end of file
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Failed to delete upload file " + file + ": " + e.getMessage());
+        }
+    }
+}
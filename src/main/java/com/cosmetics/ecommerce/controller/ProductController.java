@@ -1,9 +1,13 @@
 package com.cosmetics.ecommerce.controller;
 
+import com.cosmetics.ecommerce.dto.CursorPageDTO;
 import com.cosmetics.ecommerce.dto.ProductDTO;
 import com.cosmetics.ecommerce.dto.ProductRequest;
 import com.cosmetics.ecommerce.dto.ProductSearchRequest;
+import com.cosmetics.ecommerce.dto.ProductSearchResultDTO;
+import com.cosmetics.ecommerce.dto.SuggestionDTO;
 import com.cosmetics.ecommerce.service.ProductService;
+import com.cosmetics.ecommerce.service.ProductSuggestService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -20,6 +24,7 @@ import java.util.List;
 class ProductController {
 
     private final ProductService productService;
+    private final ProductSuggestService productSuggestService;
 
 //    @PostMapping
 //    public ResponseEntity<ProductDTO> createProduct(@RequestBody ProductRequest request) {
@@ -37,11 +42,35 @@ class ProductController {
         return ResponseEntity.ok(productService.getAllProducts(pageable));
     }
 
+    // Cursor mode, newest first: ?after= for the first page, then the nextCursor of each response
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPageDTO<ProductDTO>> getAllProductsAfter(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "12") int size
+    ) {
+        return ResponseEntity.ok(productService.getAllProductsAfter(after, size));
+    }
+
     @PostMapping("/search")
     public ResponseEntity<Page<ProductDTO>> searchProducts(@RequestBody ProductSearchRequest request) {
         return ResponseEntity.ok(productService.searchProducts(request));
     }
 
+    // Same filters, plus the category, brand, price, stock and featured counts for the sidebar
+    @PostMapping("/search/faceted")
+    public ResponseEntity<ProductSearchResultDTO> searchProductsWithFacets(@RequestBody ProductSearchRequest request) {
+        return ResponseEntity.ok(productService.searchProductsWithFacets(request));
+    }
+
+    // Search-box suggestions for what has been typed so far
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit
+    ) {
+        return ResponseEntity.ok(productSuggestService.suggest(q, limit));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id) {
         return ResponseEntity.ok(productService.getProductById(id));
@@ -67,6 +96,15 @@ class ProductController {
         return ResponseEntity.ok(productService.getProductsByCategory(categoryId, pageable));
     }
 
+    @GetMapping(value = "/category/{categoryId}", params = "after")
+    public ResponseEntity<CursorPageDTO<ProductDTO>> getProductsByCategoryAfter(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "12") int size
+    ) {
+        return ResponseEntity.ok(productService.getProductsByCategoryAfter(categoryId, after, size));
+    }
+
 
 
 
@@ -79,4 +117,13 @@ class ProductController {
         Pageable pageable = PageRequest.of(page, size);
         return ResponseEntity.ok(productService.getProductsByBrand(brandId, pageable));
     }
+
+    @GetMapping(value = "/brand/{brandId}", params = "after")
+    public ResponseEntity<CursorPageDTO<ProductDTO>> getProductsByBrandAfter(
+            @PathVariable Long brandId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "12") int size
+    ) {
+        return ResponseEntity.ok(productService.getProductsByBrandAfter(brandId, after, size));
+    }
 }
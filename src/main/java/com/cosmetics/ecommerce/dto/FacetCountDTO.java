@@ -0,0 +1,14 @@
+package com.cosmetics.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetCountDTO {
+    private Long id;
+    private String name;
+    private long count;
+}
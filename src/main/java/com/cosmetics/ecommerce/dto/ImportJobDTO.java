@@ -0,0 +1,28 @@
+package com.cosmetics.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobDTO {
+    private Long id;
+    private String fileName;
+    private String status;
+    private Integer rowsParsed;
+    private Integer rowsInserted;
+    private Integer rowsUpdated;
+    private Integer rowsUnchanged;
+    private Integer rowsFailed;
+    private List<String> errors;
+    private String errorMessage;
+    private Boolean cancelRequested;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,14 @@
+package com.cosmetics.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceRangeCountDTO {
+    private Double minPrice;
+    private Double maxPrice;  // null for the open-ended top range
+    private long count;
+}
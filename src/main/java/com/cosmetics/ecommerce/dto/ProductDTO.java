@@ -12,6 +12,7 @@ import java.math.BigDecimal;
 public class ProductDTO {
     private Long id;
     private String name;
+    private String sku;
     private String description;
     private BigDecimal price;
     private BigDecimal discountPrice;
@@ -0,0 +1,19 @@
+package com.cosmetics.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Sidebar counts; each facet is counted with every filter applied except its own
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetsDTO {
+    private List<FacetCountDTO> categories;
+    private List<FacetCountDTO> brands;
+    private List<PriceRangeCountDTO> priceRanges;
+    private long inStock;
+    private long featured;
+}
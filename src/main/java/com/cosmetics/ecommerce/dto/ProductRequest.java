@@ -17,6 +17,8 @@ public class ProductRequest {
     @NotBlank(message = "Product name is required")
     private String name;
 
+    private String sku;
+
     private String description;
 
     @NotNull(message = "Price is required")
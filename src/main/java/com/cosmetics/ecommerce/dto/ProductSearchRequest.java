@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -13,7 +15,11 @@ public class ProductSearchRequest {
     private Long brandId;
     private Double minPrice;
     private Double maxPrice;
-    private String sortBy = "createdAt";
+    private Boolean inStock;  // true: only products in stock
+    private Boolean featured;  // true: only featured products
+    private List<String> includeIngredients;  // e.g. "niacinamide": must contain each
+    private List<String> excludeIngredients;  // e.g. "paraben": free from each
+    private String sortBy;  // price, name, soldCount, createdAt, id or relevance; unset: relevance with a keyword, else createdAt
     private String sortOrder = "desc";
     private Integer page = 0;
     private Integer size = 12;
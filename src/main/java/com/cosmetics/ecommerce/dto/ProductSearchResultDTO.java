@@ -0,0 +1,19 @@
+package com.cosmetics.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchResultDTO {
+    private List<ProductDTO> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+    private ProductFacetsDTO facets;  // null while the facet index is loading
+}
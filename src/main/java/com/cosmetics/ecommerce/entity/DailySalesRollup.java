@@ -0,0 +1,36 @@
+package com.cosmetics.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One row per day on which orders were placed, maintained incrementally by
+ * SalesRollupService. Orders count towards the day they were created on.
+ */
+@Entity
+@Table(name = "daily_sales_rollup")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySalesRollup {
+
+    @Id
+    private LocalDate salesDate;
+
+    // Orders that are not cancelled
+    @Column(nullable = false)
+    private Long orderCount = 0L;
+
+    // Total of orders with payment status PAID
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal paidRevenue = BigDecimal.ZERO;
+
+    // Units in orders that are not cancelled
+    @Column(nullable = false)
+    private Long itemsSold = 0L;
+}
@@ -0,0 +1,79 @@
+package com.cosmetics.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+@Table(name = "import_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String fileName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.PENDING;
+
+    // Progress counters, updated after every committed chunk
+    private Integer rowsParsed = 0;
+    private Integer rowsInserted = 0;
+    private Integer rowsUpdated = 0;
+    private Integer rowsUnchanged = 0;
+    private Integer rowsFailed = 0;
+
+    // First row errors only, see ImportJobService.MAX_STORED_ERRORS
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "import_job_errors", joinColumns = @JoinColumn(name = "import_job_id"))
+    @OrderColumn(name = "position")
+    @Column(name = "error", length = 1000)
+    private List<String> errors = new ArrayList<>();
+
+    // Why the job as a whole failed
+    @Column(length = 1000)
+    private String errorMessage;
+
+    // Only ever set by ImportJobRepository.requestCancel, so saving a job from the import thread can't clear it
+    @Column(nullable = false, updatable = false)
+    private Boolean cancelRequested = false;
+
+    // app.order.node-id of the instance running the job
+    @Column(updatable = false)
+    private Long ownerNode;
+
+    // Refreshed by the owning instance while it holds the job; only ever updated by ImportJobRepository.heartbeat
+    @Column(updatable = false)
+    private LocalDateTime heartbeatAt;
+
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        heartbeatAt = createdAt;
+    }
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        CANCELLED
+    }
+}
@@ -7,19 +7,29 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // Keyset pagination: newest first within each listing
+        @Index(name = "idx_products_active_created", columnList = "is_active, created_at, id"),
+        @Index(name = "idx_products_category_active_created", columnList = "category_id, is_active, created_at, id"),
+        @Index(name = "idx_products_brand_active_created", columnList = "brand_id, is_active, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 200)
     private String name;
 
+    // Stable key from supplier sheets; bulk re-imports update the product with the same SKU
+    @Column(unique = true, length = 100)
+    private String sku;
+
     @Column(length = 2000)
     private String description;
 
@@ -56,6 +66,11 @@ public class Product {
     private Integer viewCount = 0;
     private Integer soldCount = 0;
 
+    // SHA-256 of the fields last written by a bulk import, so unchanged rows can be skipped.
+    // Cleared on manual edits so the next import rewrites the product.
+    @Column(length = 64)
+    private String contentHash;
+
     @Column(updatable = false)
     private LocalDateTime createdAt;
 
@@ -0,0 +1,22 @@
+package com.cosmetics.ecommerce.mapper;
+
+import com.cosmetics.ecommerce.dto.BrandDTO;
+import com.cosmetics.ecommerce.entity.Brand;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BrandMapper {
+
+    public BrandDTO toDTO(Brand brand) {
+        if (brand == null) {
+            return null;
+        }
+
+        return new BrandDTO(
+                brand.getId(),
+                brand.getName(),
+                brand.getDescription(),
+                brand.getLogoUrl(),
+                brand.getIsActive());
+    }
+}
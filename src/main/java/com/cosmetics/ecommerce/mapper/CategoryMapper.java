@@ -0,0 +1,22 @@
+package com.cosmetics.ecommerce.mapper;
+
+import com.cosmetics.ecommerce.dto.CategoryDTO;
+import com.cosmetics.ecommerce.entity.Category;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CategoryMapper {
+
+    public CategoryDTO toDTO(Category category) {
+        if (category == null) {
+            return null;
+        }
+
+        return new CategoryDTO(
+                category.getId(),
+                category.getName(),
+                category.getDescription(),
+                category.getImageUrl(),
+                category.getIsActive());
+    }
+}
@@ -0,0 +1,45 @@
+package com.cosmetics.ecommerce.mapper;
+
+import com.cosmetics.ecommerce.dto.ProductDTO;
+import com.cosmetics.ecommerce.entity.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps products to DTOs with plain getter and constructor calls, in place of
+ * ModelMapper's reflective matching, which ran for every product of every page.
+ * Only initialized associations should be passed: the category and brand are
+ * read like any other property.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductMapper {
+
+    private final CategoryMapper categoryMapper;
+    private final BrandMapper brandMapper;
+
+    public ProductDTO toDTO(Product product) {
+        if (product == null) {
+            return null;
+        }
+
+        return new ProductDTO(
+                product.getId(),
+                product.getName(),
+                product.getSku(),
+                product.getDescription(),
+                product.getPrice(),
+                product.getDiscountPrice(),
+                product.getStockQuantity(),
+                product.getImageUrl(),
+                categoryMapper.toDTO(product.getCategory()),
+                brandMapper.toDTO(product.getBrand()),
+                product.getSize(),
+                product.getWeight(),
+                product.getIngredients(),
+                product.getIsActive(),
+                product.getIsFeatured(),
+                product.getViewCount(),
+                product.getSoldCount());
+    }
+}
@@ -1,14 +1,24 @@
 package com.cosmetics.ecommerce.service;
 
+import com.cosmetics.ecommerce.entity.DailySalesRollup;
 import com.cosmetics.ecommerce.entity.Order;
 import com.cosmetics.ecommerce.entity.Product;
+import com.cosmetics.ecommerce.repository.DailySalesRollupRepository;
 import com.cosmetics.ecommerce.repository.OrderRepository;
+import com.cosmetics.ecommerce.repository.OrderStatsProjection;
 import com.cosmetics.ecommerce.repository.ProductRepository;
+import com.cosmetics.ecommerce.repository.ProductStatsProjection;
+import com.cosmetics.ecommerce.repository.RevenueSummaryProjection;
+import com.cosmetics.ecommerce.repository.StatusCountProjection;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -19,30 +29,22 @@ public class AnalyticsService {
 
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
+    private final DailySalesRollupRepository rollupRepository;
+    private final ObjectProvider<OrderColumnStore> columnStoreProvider;
 
 
     public Map<String, Object> getSalesTrend(int days) {
-        LocalDateTime endDate = LocalDateTime.now();
-        LocalDateTime startDate = endDate.minusDays(days);
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = endDate.minusDays(days);
 
-        List<Order> orders = orderRepository.findOrdersByDateRange(startDate, endDate);
+        Map<LocalDate, Double> dailySales = getDailyPaidSales(startDate, endDate);
 
-        // Group orders by date and sum the total amounts
-        Map<String, Double> dailySales = orders.stream()
-                .filter(order -> order.getPaymentStatus() == Order.PaymentStatus.PAID)
-                .collect(Collectors.groupingBy(
-                        order -> order.getCreatedAt().toLocalDate().toString(),
-                        Collectors.summingDouble(order -> order.getTotalAmount().doubleValue())
-                ));
-
-        // Sort dates
-        List<String> sortedDates = new ArrayList<>(dailySales.keySet());
-        Collections.sort(sortedDates);
-
-        List<Double> sortedSales = sortedDates.stream()
-                .map(dailySales::get)
+        List<String> sortedDates = dailySales.keySet().stream()
+                .map(LocalDate::toString)
                 .collect(Collectors.toList());
 
+        List<Double> sortedSales = new ArrayList<>(dailySales.values());
+
         Map<String, Object> response = new HashMap<>();
         response.put("dates", sortedDates);
         response.put("sales", sortedSales);
@@ -102,25 +104,25 @@ public class AnalyticsService {
         LocalDateTime startOfWeek = now.minusDays(7);
         LocalDateTime startOfMonth = now.withDayOfMonth(1).withHour(0).withMinute(0);
 
-        List<Order> allOrders = orderRepository.findAll();
-
-        // Calculate today's revenue
-        double todayRevenue = calculateRevenue(allOrders, startOfDay);
-
-        // Calculate this week's revenue
-        double weekRevenue = calculateRevenue(allOrders, startOfWeek);
+        Map<String, Object> summary = new HashMap<>();
 
-        // Calculate this month's revenue
-        double monthRevenue = calculateRevenue(allOrders, startOfMonth);
+        OrderColumnStore store = readyColumnStore();
+        if (store != null) {
+            long[] revenue = store.paidRevenueAfter(startOfDay, startOfWeek, startOfMonth, LocalDateTime.MIN);
+            summary.put("today", OrderColumnStore.paiseToAmount(revenue[0]));
+            summary.put("week", OrderColumnStore.paiseToAmount(revenue[1]));
+            summary.put("month", OrderColumnStore.paiseToAmount(revenue[2]));
+            summary.put("total", OrderColumnStore.paiseToAmount(revenue[3]));
+            return summary;
+        }
 
-        // Calculate total revenue
-        double totalRevenue = calculateRevenue(allOrders, LocalDateTime.MIN);
+        // One aggregate row; no order entities are loaded
+        RevenueSummaryProjection revenue = orderRepository.getRevenueSummary(startOfDay, startOfWeek, startOfMonth);
 
-        Map<String, Object> summary = new HashMap<>();
-        summary.put("today", todayRevenue);
-        summary.put("week", weekRevenue);
-        summary.put("month", monthRevenue);
-        summary.put("total", totalRevenue);
+        summary.put("today", valueOrZero(revenue.getTodayRevenue()));
+        summary.put("week", valueOrZero(revenue.getWeekRevenue()));
+        summary.put("month", valueOrZero(revenue.getMonthRevenue()));
+        summary.put("total", valueOrZero(revenue.getTotalRevenue()));
 
         return summary;
     }
@@ -164,54 +166,45 @@ public class AnalyticsService {
      * @return Map containing various dashboard metrics
      */
     public Map<String, Object> getDashboardStats() {
-        List<Order> allOrders = orderRepository.findAll();
-        List<Product> allProducts = productRepository.findAll();
-
-        // Order statistics
-        long totalOrders = allOrders.size();
-        long pendingOrders = allOrders.stream()
-                .filter(o -> o.getStatus() == Order.OrderStatus.PENDING)
-                .count();
-        long deliveredOrders = allOrders.stream()
-                .filter(o -> o.getStatus() == Order.OrderStatus.DELIVERED)
-                .count();
-
-        // Product statistics
-        long totalProducts = allProducts.size();
-        long lowStockProducts = allProducts.stream()
-                .filter(p -> p.getStockQuantity() < 10)
-                .count();
-        long outOfStockProducts = allProducts.stream()
-                .filter(p -> p.getStockQuantity() == 0)
-                .count();
-
-        // Revenue
-        double totalRevenue = calculateRevenue(allOrders, LocalDateTime.MIN);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime startOfDay = now.withHour(0).withMinute(0).withSecond(0);
+        LocalDateTime endOfDay = now.withHour(23).withMinute(59).withSecond(59);
+        LocalDateTime startOfMonth = now.withDayOfMonth(1).withHour(0).withMinute(0);
+
+        ProductStatsProjection products = productRepository.getProductStatistics(10);
 
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalOrders", totalOrders);
-        stats.put("pendingOrders", pendingOrders);
-        stats.put("deliveredOrders", deliveredOrders);
-        stats.put("totalProducts", totalProducts);
-        stats.put("lowStockProducts", lowStockProducts);
-        stats.put("outOfStockProducts", outOfStockProducts);
-        stats.put("totalRevenue", totalRevenue);
+        stats.put("totalProducts", products.getTotalProducts());
+        stats.put("lowStockProducts", valueOrZero(products.getLowStockProducts()));
+        stats.put("outOfStockProducts", valueOrZero(products.getOutOfStockProducts()));
+
+        OrderColumnStore store = readyColumnStore();
+        if (store != null) {
+            long[] statusCounts = store.countByStatus();
+            stats.put("totalOrders", (long) store.orderCount());
+            stats.put("pendingOrders", statusCounts[Order.OrderStatus.PENDING.ordinal()]);
+            stats.put("deliveredOrders", statusCounts[Order.OrderStatus.DELIVERED.ordinal()]);
+            stats.put("totalRevenue", OrderColumnStore.paiseToAmount(store.paidRevenueAfter(LocalDateTime.MIN)[0]));
+            return stats;
+        }
+
+        // One aggregate row over the orders table
+        OrderStatsProjection orders = orderRepository.getOrderStatistics(startOfDay, endOfDay, startOfMonth, now);
+        stats.put("totalOrders", orders.getTotalOrders());
+        stats.put("pendingOrders", valueOrZero(orders.getPendingOrders()));
+        stats.put("deliveredOrders", valueOrZero(orders.getDeliveredOrders()));
+        stats.put("totalRevenue", valueOrZero(orders.getTotalRevenue()));
 
         return stats;
     }
 
-    /**
-     * Helper method to calculate revenue after a specific date
-     * @param orders List of all orders
-     * @param startDate Starting date for calculation
-     * @return Total revenue
-     */
-    private double calculateRevenue(List<Order> orders, LocalDateTime startDate) {
-        return orders.stream()
-                .filter(order -> order.getCreatedAt().isAfter(startDate))
-                .filter(order -> order.getPaymentStatus() == Order.PaymentStatus.PAID)
-                .mapToDouble(order -> order.getTotalAmount().doubleValue())
-                .sum();
+    // Helper: SUM over an empty table is null
+    private long valueOrZero(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    private double valueOrZero(BigDecimal value) {
+        return value != null ? value.doubleValue() : 0.0;
     }
 
     /**
@@ -219,13 +212,24 @@ public class AnalyticsService {
      * @return Map of order statuses to counts
      */
     public Map<String, Long> getOrderStatusDistribution() {
-        List<Order> allOrders = orderRepository.findAll();
-
-        return allOrders.stream()
-                .collect(Collectors.groupingBy(
-                        order -> order.getStatus().name(),
-                        Collectors.counting()
-                ));
+        OrderColumnStore store = readyColumnStore();
+        if (store != null) {
+            long[] statusCounts = store.countByStatus();
+            Map<String, Long> distribution = new HashMap<>();
+            for (Order.OrderStatus status : Order.OrderStatus.values()) {
+                if (statusCounts[status.ordinal()] > 0) {
+                    distribution.put(status.name(), statusCounts[status.ordinal()]);
+                }
+            }
+            return distribution;
+        }
+
+        // One row per status; no order entities are loaded
+        Map<String, Long> distribution = new HashMap<>();
+        for (StatusCountProjection row : orderRepository.countGroupedByStatus()) {
+            distribution.put(row.getStatus().name(), row.getOrderCount());
+        }
+        return distribution;
     }
 
     /**
@@ -234,25 +238,16 @@ public class AnalyticsService {
      * @return Map containing month labels and sales data
      */
     public Map<String, Object> getMonthlySalesComparison(int months) {
-        LocalDateTime endDate = LocalDateTime.now();
-        LocalDateTime startDate = endDate.minusMonths(months);
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = endDate.minusMonths(months);
 
-        List<Order> orders = orderRepository.findOrdersByDateRange(startDate, endDate);
-
-        Map<String, Double> monthlySales = orders.stream()
-                .filter(order -> order.getPaymentStatus() == Order.PaymentStatus.PAID)
-                .collect(Collectors.groupingBy(
-                        order -> order.getCreatedAt().getYear() + "-" +
-                                String.format("%02d", order.getCreatedAt().getMonthValue()),
-                        Collectors.summingDouble(order -> order.getTotalAmount().doubleValue())
-                ));
+        // At most a few hundred days, folded into months in date order
+        Map<String, Double> monthlySales = new LinkedHashMap<>();
+        getDailyPaidSales(startDate, endDate).forEach((date, sales) ->
+                monthlySales.merge(YearMonth.from(date).toString(), sales, Double::sum));
 
         List<String> sortedMonths = new ArrayList<>(monthlySales.keySet());
-        Collections.sort(sortedMonths);
-
-        List<Double> sortedSales = sortedMonths.stream()
-                .map(monthlySales::get)
-                .collect(Collectors.toList());
+        List<Double> sortedSales = new ArrayList<>(monthlySales.values());
 
         Map<String, Object> response = new HashMap<>();
         response.put("months", sortedMonths);
@@ -260,4 +255,36 @@ public class AnalyticsService {
 
         return response;
     }
+
+    /**
+     * Paid sales per day, only days that have sales, in date order.
+     * Served from the in-memory column store when it is enabled, otherwise from the daily rollup.
+     */
+    private Map<LocalDate, Double> getDailyPaidSales(LocalDate startDate, LocalDate endDate) {
+        Map<LocalDate, Double> dailySales = new LinkedHashMap<>();
+
+        OrderColumnStore store = readyColumnStore();
+        if (store != null) {
+            long[] revenue = store.paidRevenueByDay((int) startDate.toEpochDay(), (int) endDate.toEpochDay());
+            for (int i = 0; i < revenue.length; i++) {
+                if (revenue[i] > 0) {
+                    dailySales.put(startDate.plusDays(i), OrderColumnStore.paiseToAmount(revenue[i]));
+                }
+            }
+            return dailySales;
+        }
+
+        for (DailySalesRollup rollup : rollupRepository.findBySalesDateBetweenOrderBySalesDateAsc(startDate, endDate)) {
+            if (rollup.getPaidRevenue().signum() > 0) {
+                dailySales.put(rollup.getSalesDate(), rollup.getPaidRevenue().doubleValue());
+            }
+        }
+        return dailySales;
+    }
+
+    // Helper: the column store, or null when it is disabled or still loading
+    private OrderColumnStore readyColumnStore() {
+        OrderColumnStore store = columnStoreProvider.getIfAvailable();
+        return store != null && store.isReady() ? store : null;
+    }
 }
@@ -0,0 +1,13 @@
+package com.cosmetics.ecommerce.repository;
+
+import com.cosmetics.ecommerce.entity.DailySalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailySalesRollupRepository extends JpaRepository<DailySalesRollup, LocalDate> {
+    List<DailySalesRollup> findBySalesDateBetweenOrderBySalesDateAsc(LocalDate startDate, LocalDate endDate);
+}
@@ -0,0 +1,39 @@
+package com.cosmetics.ecommerce.repository;
+
+import com.cosmetics.ecommerce.entity.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+
+    List<ImportJob> findTop20ByOrderByCreatedAtDesc();
+
+    List<ImportJob> findByOwnerNodeAndStatusIn(Long ownerNode, List<ImportJob.Status> statuses);
+
+    // Unfinished jobs whose owning instance stopped refreshing them
+    @Query("SELECT j FROM ImportJob j WHERE j.status IN :statuses AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :cutoff)")
+    List<ImportJob> findStale(@Param("statuses") List<ImportJob.Status> statuses, @Param("cutoff") LocalDateTime cutoff);
+
+    @Query("SELECT j.cancelRequested FROM ImportJob j WHERE j.id = :id")
+    Boolean isCancelRequested(@Param("id") Long id);
+
+    // Flag only; the running import notices it at its next chunk boundary
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.cancelRequested = true WHERE j.id = :id")
+    int requestCancel(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.heartbeatAt = :now WHERE j.id IN :ids")
+    int heartbeat(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+}
@@ -3,6 +3,7 @@ package com.cosmetics.ecommerce.repository;
 import com.cosmetics.ecommerce.entity.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,14 +15,26 @@ import java.util.Optional;
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
+    // Pages load the user with the orders; items and their products are batch fetched,
+    // since a collection fetch join would make Hibernate page in memory
+
+    @Override
+    @EntityGraph(attributePaths = "user")
+    Page<Order> findAll(Pageable pageable);
+
     // Find by user
+    @EntityGraph(attributePaths = "user")
     Page<Order> findByUserId(Long userId, Pageable pageable);
+
+    // Unpaged, so the whole graph comes in one query
+    @EntityGraph(attributePaths = {"user", "orderItems", "orderItems.product"})
     List<Order> findByUserId(Long userId);
 
     // Find by order number
     Optional<Order> findByOrderNumber(String orderNumber);
 
     // Find by status
+    @EntityGraph(attributePaths = "user")
     Page<Order> findByStatus(Order.OrderStatus status, Pageable pageable);
     List<Order> findByStatus(Order.OrderStatus status);
 
@@ -32,10 +45,43 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT COUNT(o) FROM Order o WHERE o.status = :status")
     Long countByStatus(@Param("status") Order.OrderStatus status);
 
+    // Number of orders per status in one grouped query
+    @Query("SELECT o.status AS status, COUNT(o) AS orderCount FROM Order o GROUP BY o.status")
+    List<StatusCountProjection> countGroupedByStatus();
+
     // Get total revenue
     @Query("SELECT SUM(o.totalAmount) FROM Order o WHERE o.paymentStatus = 'PAID'")
     Double getTotalRevenue();
 
+    // All admin order statistics in one pass over the orders table
+    @Query("SELECT COUNT(o) AS totalOrders, " +
+            "SUM(CASE WHEN o.status = 'PENDING' THEN 1 ELSE 0 END) AS pendingOrders, " +
+            "SUM(CASE WHEN o.status = 'CONFIRMED' THEN 1 ELSE 0 END) AS confirmedOrders, " +
+            "SUM(CASE WHEN o.status = 'SHIPPED' THEN 1 ELSE 0 END) AS shippedOrders, " +
+            "SUM(CASE WHEN o.status = 'DELIVERED' THEN 1 ELSE 0 END) AS deliveredOrders, " +
+            "SUM(CASE WHEN o.status = 'CANCELLED' THEN 1 ELSE 0 END) AS cancelledOrders, " +
+            "SUM(CASE WHEN o.paymentStatus = 'PAID' THEN o.totalAmount ELSE 0 END) AS totalRevenue, " +
+            "SUM(CASE WHEN o.paymentStatus = 'PAID' AND o.createdAt BETWEEN :startOfDay AND :endOfDay " +
+            "THEN o.totalAmount ELSE 0 END) AS todayRevenue, " +
+            "SUM(CASE WHEN o.paymentStatus = 'PAID' AND o.createdAt BETWEEN :startOfMonth AND :now " +
+            "THEN o.totalAmount ELSE 0 END) AS monthRevenue " +
+            "FROM Order o")
+    OrderStatsProjection getOrderStatistics(@Param("startOfDay") java.time.LocalDateTime startOfDay,
+                                            @Param("endOfDay") java.time.LocalDateTime endOfDay,
+                                            @Param("startOfMonth") java.time.LocalDateTime startOfMonth,
+                                            @Param("now") java.time.LocalDateTime now);
+
+    // Paid revenue for several windows in one pass over the orders table
+    @Query("SELECT " +
+            "SUM(CASE WHEN o.createdAt > :startOfDay THEN o.totalAmount ELSE 0 END) AS todayRevenue, " +
+            "SUM(CASE WHEN o.createdAt > :startOfWeek THEN o.totalAmount ELSE 0 END) AS weekRevenue, " +
+            "SUM(CASE WHEN o.createdAt > :startOfMonth THEN o.totalAmount ELSE 0 END) AS monthRevenue, " +
+            "SUM(o.totalAmount) AS totalRevenue " +
+            "FROM Order o WHERE o.paymentStatus = 'PAID'")
+    RevenueSummaryProjection getRevenueSummary(@Param("startOfDay") java.time.LocalDateTime startOfDay,
+                                               @Param("startOfWeek") java.time.LocalDateTime startOfWeek,
+                                               @Param("startOfMonth") java.time.LocalDateTime startOfMonth);
+
     // Find orders by date range
     @Query("SELECT o FROM Order o WHERE o.createdAt BETWEEN :startDate AND :endDate")
     List<Order> findOrdersByDateRange(@Param("startDate") java.time.LocalDateTime startDate,
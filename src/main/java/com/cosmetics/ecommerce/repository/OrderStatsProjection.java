@@ -0,0 +1,16 @@
+package com.cosmetics.ecommerce.repository;
+
+import java.math.BigDecimal;
+
+// Row returned by OrderRepository.getOrderStatistics; sums are null when there are no orders
+public interface OrderStatsProjection {
+    Long getTotalOrders();
+    Long getPendingOrders();
+    Long getConfirmedOrders();
+    Long getShippedOrders();
+    Long getDeliveredOrders();
+    Long getCancelledOrders();
+    BigDecimal getTotalRevenue();
+    BigDecimal getTodayRevenue();
+    BigDecimal getMonthRevenue();
+}
@@ -1,48 +1,125 @@
 package com.cosmetics.ecommerce.repository;
 
 import com.cosmetics.ecommerce.entity.Product;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    // List queries load category and brand with the products, which every product DTO needs
+
     // Find by category
+    @EntityGraph(attributePaths = {"category", "brand"})
     Page<Product> findByCategoryIdAndIsActiveTrue(Long categoryId, Pageable pageable);
 
     // Find by brand
+    @EntityGraph(attributePaths = {"category", "brand"})
     Page<Product> findByBrandIdAndIsActiveTrue(Long brandId, Pageable pageable);
 
     // Find featured products
+    @EntityGraph(attributePaths = {"category", "brand"})
     Page<Product> findByIsFeaturedTrueAndIsActiveTrue(Pageable pageable);
 
     // Search by name
+    @EntityGraph(attributePaths = {"category", "brand"})
     @Query("SELECT p FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) AND p.isActive = true")
     Page<Product> searchByName(@Param("keyword") String keyword, Pageable pageable);
 
     // Find by category and brand
+    @EntityGraph(attributePaths = {"category", "brand"})
     Page<Product> findByCategoryIdAndBrandIdAndIsActiveTrue(Long categoryId, Long brandId, Pageable pageable);
 
 
 
     // Find all active products
+    @EntityGraph(attributePaths = {"category", "brand"})
     Page<Product> findByIsActiveTrue(Pageable pageable);
 
     // Find products by price range
+    @EntityGraph(attributePaths = {"category", "brand"})
     @Query("SELECT p FROM Product p WHERE p.price BETWEEN :minPrice AND :maxPrice AND p.isActive = true")
     Page<Product> findByPriceRange(@Param("minPrice") Double minPrice, @Param("maxPrice") Double maxPrice, Pageable pageable);
 
     // Find low stock products (for admin)
+    @EntityGraph(attributePaths = {"category", "brand"})
     @Query("SELECT p FROM Product p WHERE p.stockQuantity < :threshold AND p.isActive = true")
     List<Product> findLowStockProducts(@Param("threshold") Integer threshold);
 
     // Get top selling products
+    @EntityGraph(attributePaths = {"category", "brand"})
     List<Product> findTop10ByIsActiveTrueOrderBySoldCountDesc();
+
+    // Existing products matched by a bulk upsert
+    List<Product> findBySkuIn(Collection<String> skus);
+
+    // Ids behind SKU-keyed price and stock updates
+    @Query("SELECT p.id FROM Product p WHERE p.sku IN :skus")
+    List<Long> findIdsBySkuIn(@Param("skus") Collection<String> skus);
+
+    // Active products of a category or brand, for re-indexing after a rename
+    @Query("SELECT p.id FROM Product p WHERE p.category.id = :categoryId AND p.isActive = true")
+    List<Long> findIdsByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query("SELECT p.id FROM Product p WHERE p.brand.id = :brandId AND p.isActive = true")
+    List<Long> findIdsByBrandId(@Param("brandId") Long brandId);
+
+    // Products with category and brand loaded in the same query, for the search index
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category LEFT JOIN FETCH p.brand WHERE p.id IN :ids")
+    List<Product> findWithCategoryAndBrandByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Next page of active products by ascending id, for rebuilding in-memory and on-disk indexes
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category LEFT JOIN FETCH p.brand " +
+            "WHERE p.isActive = true AND p.id > :afterId ORDER BY p.id")
+    List<Product> findActiveAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    long countByIsActiveTrue();
+
+    // Keyset pages, newest first: active products ordered after the (createdAt, id) of the previous page's last row
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category LEFT JOIN FETCH p.brand " +
+            "WHERE p.isActive = true " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Product> findActiveBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                   Pageable pageable);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category LEFT JOIN FETCH p.brand " +
+            "WHERE p.category.id = :categoryId AND p.isActive = true " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Product> findActiveByCategoryBefore(@Param("categoryId") Long categoryId,
+                                             @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                             Pageable pageable);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category LEFT JOIN FETCH p.brand " +
+            "WHERE p.brand.id = :brandId AND p.isActive = true " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Product> findActiveByBrandBefore(@Param("brandId") Long brandId,
+                                          @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                          Pageable pageable);
+
+    // Catalogue stock counters for the admin dashboard in one pass
+    @Query("SELECT COUNT(p) AS totalProducts, " +
+            "SUM(CASE WHEN p.stockQuantity < :lowStockThreshold THEN 1 ELSE 0 END) AS lowStockProducts, " +
+            "SUM(CASE WHEN p.stockQuantity = 0 THEN 1 ELSE 0 END) AS outOfStockProducts " +
+            "FROM Product p")
+    ProductStatsProjection getProductStatistics(@Param("lowStockThreshold") Integer lowStockThreshold);
+
+    // Load and lock every product of an order in one query, always in ascending id order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
 }
 
@@ -0,0 +1,8 @@
+package com.cosmetics.ecommerce.repository;
+
+// Row returned by ProductRepository.getProductStatistics; sums are null when there are no products
+public interface ProductStatsProjection {
+    Long getTotalProducts();
+    Long getLowStockProducts();
+    Long getOutOfStockProducts();
+}
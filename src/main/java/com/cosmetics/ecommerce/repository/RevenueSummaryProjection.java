@@ -0,0 +1,11 @@
+package com.cosmetics.ecommerce.repository;
+
+import java.math.BigDecimal;
+
+// Row returned by OrderRepository.getRevenueSummary; sums are null when there are no orders
+public interface RevenueSummaryProjection {
+    BigDecimal getTodayRevenue();
+    BigDecimal getWeekRevenue();
+    BigDecimal getMonthRevenue();
+    BigDecimal getTotalRevenue();
+}
@@ -0,0 +1,9 @@
+package com.cosmetics.ecommerce.repository;
+
+import com.cosmetics.ecommerce.entity.Order;
+
+// Row returned by OrderRepository.countGroupedByStatus, one per status that has orders
+public interface StatusCountProjection {
+    Order.OrderStatus getStatus();
+    Long getOrderCount();
+}
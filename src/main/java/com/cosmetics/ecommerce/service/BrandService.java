@@ -3,10 +3,11 @@ package com.cosmetics.ecommerce.service;
 import com.cosmetics.ecommerce.dto.BrandDTO;
 import com.cosmetics.ecommerce.dto.BrandRequest;
 import com.cosmetics.ecommerce.entity.Brand;
+import com.cosmetics.ecommerce.mapper.BrandMapper;
 import com.cosmetics.ecommerce.repository.BrandRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -18,13 +19,14 @@ import java.util.stream.Collectors;
 public class BrandService {
 
     private final BrandRepository brandRepository;
-    private final ModelMapper modelMapper;
+    private final BrandMapper brandMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Get all brands
     public List<BrandDTO> getAllBrands() {
         return brandRepository.findAll()
                 .stream()
-                .map(brand -> modelMapper.map(brand, BrandDTO.class))
+                .map(brand -> brandMapper.toDTO(brand))
                 .collect(Collectors.toList());
     }
 
@@ -32,7 +34,7 @@ public class BrandService {
     public List<BrandDTO> getAllActiveBrands() {
         return brandRepository.findByIsActiveTrue()
                 .stream()
-                .map(brand -> modelMapper.map(brand, BrandDTO.class))
+                .map(brand -> brandMapper.toDTO(brand))
                 .collect(Collectors.toList());
     }
 
@@ -41,7 +43,7 @@ public class BrandService {
         Brand brand = brandRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Brand not found with id: " + id));
 
-        return modelMapper.map(brand, BrandDTO.class);
+        return brandMapper.toDTO(brand);
     }
 
     // Create brand
@@ -56,7 +58,7 @@ public class BrandService {
         brand.setLogoUrl(request.getLogoUrl());
 
         Brand savedBrand = brandRepository.save(brand);
-        return modelMapper.map(savedBrand, BrandDTO.class);
+        return brandMapper.toDTO(savedBrand);
     }
 
     // Update brand
@@ -75,7 +77,8 @@ public class BrandService {
         brand.setLogoUrl(request.getLogoUrl());
 
         Brand updatedBrand = brandRepository.save(brand);
-        return modelMapper.map(updatedBrand, BrandDTO.class);
+        eventPublisher.publishEvent(new CategoryOrBrandChangedEvent("brand", id));
+        return brandMapper.toDTO(updatedBrand);
     }
 
     // Delete brand (soft delete)
@@ -85,6 +88,7 @@ public class BrandService {
 
         brand.setIsActive(false);
         brandRepository.save(brand);
+        eventPublisher.publishEvent(new CategoryOrBrandChangedEvent("brand", id));
     }
 
     // Activate brand
@@ -94,5 +98,6 @@ public class BrandService {
 
         brand.setIsActive(true);
         brandRepository.save(brand);
+        eventPublisher.publishEvent(new CategoryOrBrandChangedEvent("brand", id));
     }
 }
@@ -6,85 +6,308 @@ import com.cosmetics.ecommerce.entity.Product;
 import com.cosmetics.ecommerce.repository.BrandRepository;
 import com.cosmetics.ecommerce.repository.CategoryRepository;
 import com.cosmetics.ecommerce.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.File;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
-
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Product import from the bulk upload template.
+ *
+ * Rows are streamed from the file (.xlsx, or CSV/NDJSON which are parsed and
+ * validated in parallel), and written in chunks
+ * of {@code app.bulk-upload.batch-size} products. Each chunk is inserted as
+ * JDBC batches in its own transaction, so a large file never holds one giant
+ * transaction or persistence context. If a chunk fails to write, its rows are
+ * retried individually so the offending rows are still reported.
+ *
+ * Rows that carry a SKU are upserted: a product with the same SKU is updated
+ * in place instead of duplicated, and skipped entirely when the hash of the
+ * row's content matches the hash stored by the previous import. Outcomes are
+ * reported to an {@link ImportProgressListener}; see ImportJobService for the
+ * background jobs built on top of this.
+ */
 @Service
 @RequiredArgsConstructor
-@Transactional
 public class BulkUploadService {
 
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final BrandRepository brandRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Template columns, shared with the catalog export so exports can be re-imported
+    static final String[] TEMPLATE_HEADERS = {
+            "Product Name*", "Description", "Price*", "Discount Price",
+            "Stock Quantity*", "Category*", "Brand*", "Image URL",
+            "Size", "Weight", "Ingredients", "Is Featured (true/false)", "SKU"
+    };
+
+    private static final int COLUMN_COUNT = TEMPLATE_HEADERS.length;
+
+    // Text rows parsed together per parallel pass, in chunks
+    private static final int PARSE_BLOCK_CHUNKS = 4;
 
-    public Map<String, Object> uploadProducts(MultipartFile file) throws IOException {
-        Map<String, Object> result = new HashMap<>();
-        List<String> errors = new ArrayList<>();
-        List<String> success = new ArrayList<>();
-        int rowNumber = 0;
+    private enum RowOutcome { INSERTED, UPDATED, UNCHANGED }
 
-        try (Workbook workbook = new XSSFWorkbook(file.getInputStream())) {
-            Sheet sheet = workbook.getSheetAt(0);
+    @Value("${app.bulk-upload.batch-size:500}")
+    private int batchSize;
 
-            // Skip header row
-            boolean isFirstRow = true;
+    /**
+     * Import every row of a file in the template format.
+     * Stops early, keeping the chunks already committed, when the listener reports cancellation.
+     */
+    public void importProducts(File file, ImportFormat format, ImportProgressListener listener) throws IOException {
+        // Resolve every category and brand once instead of per row
+        Map<String, Category> categories = loadCategoriesByName();
+        Map<String, Brand> brands = loadBrandsByName();
 
-            for (Row row : sheet) {
-                if (isFirstRow) {
-                    isFirstRow = false;
-                    continue;
+        ChunkWriter writer = new ChunkWriter(listener);
+
+        try {
+            if (format == ImportFormat.XLSX) {
+                XlsxRowReader.read(file, COLUMN_COUNT, values -> {
+                    int rowNumber = writer.nextRowNumber();
+                    try {
+                        writer.add(rowNumber, parseRowToProduct(values, rowNumber, categories, brands));
+                    } catch (Exception e) {
+                        writer.fail(rowNumber, e.getMessage());
+                    }
+                });
+            } else {
+                importTextFile(file, format, categories, brands, writer);
+            }
+
+            writer.finish();
+        } catch (ImportCancelledException e) {
+            // Thrown only to stop reading; everything up to the last chunk is committed
+        }
+    }
+
+    // CSV and NDJSON: records are read in blocks, parsed and validated in parallel, then written in file order
+    private void importTextFile(File file, ImportFormat format, Map<String, Category> categories,
+                                Map<String, Brand> brands, ChunkWriter writer) throws IOException {
+        int blockSize = batchSize * PARSE_BLOCK_CHUNKS;
+
+        try (TextRowReader reader = new TextRowReader(file, format)) {
+            List<String> records;
+            while (!(records = reader.readBlock(blockSize)).isEmpty()) {
+                int firstRow = writer.getRowNumber() + 1;
+                Product[] products = new Product[records.size()];
+                String[] errors = new String[records.size()];
+
+                List<String> block = records;
+                IntStream.range(0, block.size()).parallel().forEach(i -> {
+                    try {
+                        String[] values = reader.parse(block.get(i), COLUMN_COUNT);
+                        products[i] = parseRowToProduct(values, firstRow + i, categories, brands);
+                    } catch (Exception e) {
+                        errors[i] = e.getMessage();
+                    }
+                });
+
+                for (int i = 0; i < block.size(); i++) {
+                    int rowNumber = writer.nextRowNumber();
+                    if (errors[i] != null) {
+                        writer.fail(rowNumber, errors[i]);
+                    } else {
+                        writer.add(rowNumber, products[i]);
+                    }
                 }
+            }
+        }
+    }
 
-                rowNumber++;
+    // Write one chunk in its own transaction, then empty it
+    private void saveChunk(List<Product> chunk, List<Integer> chunkRows, ImportProgressListener listener) {
+        if (chunk.isEmpty()) {
+            return;
+        }
 
+        try {
+            List<RowOutcome> outcomes = transactionTemplate.execute(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                return upsertProducts(chunk);
+            });
+
+            for (int i = 0; i < chunk.size(); i++) {
+                reportOutcome(listener, chunkRows.get(i), chunk.get(i), outcomes.get(i));
+            }
+        } catch (Exception chunkFailure) {
+            // Find the offending rows by retrying one at a time
+            for (int i = 0; i < chunk.size(); i++) {
+                Product product = chunk.get(i);
+                product.setId(null);
                 try {
-                    Product product = parseRowToProduct(row, rowNumber);
-                    if (product != null) {
-                        productRepository.save(product);
-                        success.add("Row " + rowNumber + ": " + product.getName() + " - SUCCESS");
-                    }
+                    List<RowOutcome> outcome = transactionTemplate.execute(status -> upsertProducts(List.of(product)));
+                    reportOutcome(listener, chunkRows.get(i), product, outcome.get(0));
                 } catch (Exception e) {
-                    errors.add("Row " + rowNumber + ": " + e.getMessage());
+                    listener.rowFailed(chunkRows.get(i), e.getMessage());
+                }
+            }
+        }
+
+        chunk.clear();
+        chunkRows.clear();
+    }
+
+    // Inserts new products and updates changed ones matched by SKU; runs inside the chunk's transaction
+    private List<RowOutcome> upsertProducts(List<Product> rows) {
+        List<String> skus = rows.stream()
+                .map(Product::getSku)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        Map<String, Product> productsBySku = new HashMap<>();
+        if (!skus.isEmpty()) {
+            productRepository.findBySkuIn(skus).forEach(product -> productsBySku.put(product.getSku(), product));
+        }
+
+        List<Product> inserts = new ArrayList<>();
+        List<RowOutcome> outcomes = new ArrayList<>(rows.size());
+
+        for (Product row : rows) {
+            Product existing = row.getSku() != null ? productsBySku.get(row.getSku()) : null;
+
+            if (existing == null) {
+                inserts.add(row);
+                outcomes.add(RowOutcome.INSERTED);
+                if (row.getSku() != null) {
+                    // A repeated SKU later in the same chunk updates this row instead
+                    productsBySku.put(row.getSku(), row);
                 }
+            } else if (row.getContentHash().equals(existing.getContentHash())) {
+                outcomes.add(RowOutcome.UNCHANGED);
+            } else {
+                // Managed entity, written by dirty checking when the transaction commits
+                copyImportedFields(row, existing);
+                outcomes.add(RowOutcome.UPDATED);
             }
         }
 
-        result.put("totalRows", rowNumber);
-        result.put("successCount", success.size());
-        result.put("errorCount", errors.size());
-        result.put("errors", errors);
-        result.put("success", success);
+        productRepository.saveAll(inserts);
+
+        // Indexes pick the written products up once the chunk commits
+        List<Long> writtenIds = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (outcomes.get(i) != RowOutcome.UNCHANGED) {
+                Product row = rows.get(i);
+                writtenIds.add(outcomes.get(i) == RowOutcome.INSERTED ? row.getId() : productsBySku.get(row.getSku()).getId());
+            }
+        }
+        if (!writtenIds.isEmpty()) {
+            eventPublisher.publishEvent(new ProductChangedEvent(writtenIds));
+        }
 
-        return result;
+        return outcomes;
     }
 
-    private Product parseRowToProduct(Row row, int rowNumber) {
+    // Only the template's columns; stock sold, view counts and the active flag are left alone
+    private void copyImportedFields(Product source, Product target) {
+        target.setName(source.getName());
+        target.setDescription(source.getDescription());
+        target.setPrice(source.getPrice());
+        target.setDiscountPrice(source.getDiscountPrice());
+        target.setStockQuantity(source.getStockQuantity());
+        target.setCategory(source.getCategory());
+        target.setBrand(source.getBrand());
+        target.setImageUrl(source.getImageUrl());
+        target.setSize(source.getSize());
+        target.setWeight(source.getWeight());
+        target.setIngredients(source.getIngredients());
+        target.setIsFeatured(source.getIsFeatured());
+        target.setContentHash(source.getContentHash());
+    }
+
+    private void reportOutcome(ImportProgressListener listener, int rowNumber, Product product, RowOutcome outcome) {
+        switch (outcome) {
+            case INSERTED -> listener.rowSucceeded(rowNumber, product.getName());
+            case UPDATED -> listener.rowUpdated(rowNumber, product.getName());
+            case UNCHANGED -> listener.rowUnchanged(rowNumber);
+        }
+    }
+
+    // Hash of every imported field; numbers are normalised so 10.5 and 10.50 hash the same
+    private String contentHash(Product product) {
+        String content = String.join("\u001F",
+                product.getName(),
+                Objects.toString(product.getDescription(), ""),
+                normalise(product.getPrice()),
+                normalise(product.getDiscountPrice()),
+                String.valueOf(product.getStockQuantity()),
+                String.valueOf(product.getCategory().getId()),
+                String.valueOf(product.getBrand().getId()),
+                Objects.toString(product.getImageUrl(), ""),
+                Objects.toString(product.getSize(), ""),
+                Objects.toString(product.getWeight(), ""),
+                Objects.toString(product.getIngredients(), ""),
+                String.valueOf(product.getIsFeatured()));
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private String normalise(BigDecimal value) {
+        return value != null ? value.stripTrailingZeros().toPlainString() : "";
+    }
+
+    // Names are matched case-insensitively, like the database's default collation did for findByName
+    private Map<String, Category> loadCategoriesByName() {
+        Map<String, Category> categories = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        categoryRepository.findAll().forEach(category -> categories.put(category.getName(), category));
+        return categories;
+    }
+
+    private Map<String, Brand> loadBrandsByName() {
+        Map<String, Brand> brands = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        brandRepository.findAll().forEach(brand -> brands.put(brand.getName(), brand));
+        return brands;
+    }
+
+    private Product parseRowToProduct(String[] values, int rowNumber,
+                                      Map<String, Category> categories, Map<String, Brand> brands) {
         try {
             // Column mapping (adjust according to your Excel template)
-            String name = getCellValueAsString(row.getCell(0));
-            String description = getCellValueAsString(row.getCell(1));
-            BigDecimal price = getCellValueAsBigDecimal(row.getCell(2));
-            BigDecimal discountPrice = getCellValueAsBigDecimal(row.getCell(3));
-            Integer stockQuantity = getCellValueAsInteger(row.getCell(4));
-            String categoryName = getCellValueAsString(row.getCell(5));
-            String brandName = getCellValueAsString(row.getCell(6));
-            String imageUrl = getCellValueAsString(row.getCell(7));
-            String size = getCellValueAsString(row.getCell(8));
-            String weight = getCellValueAsString(row.getCell(9));
-            String ingredients = getCellValueAsString(row.getCell(10));
-            Boolean isFeatured = getCellValueAsBoolean(row.getCell(11));
+            String name = values[0];
+            String description = values[1];
+            BigDecimal price = parseBigDecimal(values[2]);
+            BigDecimal discountPrice = parseBigDecimal(values[3]);
+            Integer stockQuantity = parseInteger(values[4]);
+            String categoryName = values[5];
+            String brandName = values[6];
+            String imageUrl = values[7];
+            String size = values[8];
+            String weight = values[9];
+            String ingredients = values[10];
+            Boolean isFeatured = parseBoolean(values[11]);
+            String sku = values[12] != null ? values[12].trim() : null;
 
             // Validate required fields
             if (name == null || name.trim().isEmpty()) {
@@ -103,13 +326,17 @@ public class BulkUploadService {
                 throw new RuntimeException("Brand is required");
             }
 
-            // Find or create category
-            Category category = categoryRepository.findByName(categoryName)
-                    .orElseThrow(() -> new RuntimeException("Category '" + categoryName + "' not found"));
+            // Find category
+            Category category = categories.get(categoryName);
+            if (category == null) {
+                throw new RuntimeException("Category '" + categoryName + "' not found");
+            }
 
-            // Find or create brand
-            Brand brand = brandRepository.findByName(brandName)
-                    .orElseThrow(() -> new RuntimeException("Brand '" + brandName + "' not found"));
+            // Find brand
+            Brand brand = brands.get(brandName);
+            if (brand == null) {
+                throw new RuntimeException("Brand '" + brandName + "' not found");
+            }
 
             // Create product
             Product product = new Product();
@@ -126,6 +353,8 @@ public class BulkUploadService {
             product.setIngredients(ingredients);
             product.setIsFeatured(isFeatured != null ? isFeatured : false);
             product.setIsActive(true);
+            product.setSku(sku == null || sku.isEmpty() ? null : sku);
+            product.setContentHash(contentHash(product));
 
             return product;
         } catch (Exception e) {
@@ -133,69 +362,31 @@ public class BulkUploadService {
         }
     }
 
-    private String getCellValueAsString(Cell cell) {
-        if (cell == null) return null;
-
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue().trim();
-            case NUMERIC:
-                return String.valueOf((long) cell.getNumericCellValue());
-            case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            default:
-                return null;
-        }
-    }
-
-    private BigDecimal getCellValueAsBigDecimal(Cell cell) {
-        if (cell == null) return null;
+    private BigDecimal parseBigDecimal(String value) {
+        if (value == null) return null;
 
-        switch (cell.getCellType()) {
-            case NUMERIC:
-                return BigDecimal.valueOf(cell.getNumericCellValue());
-            case STRING:
-                try {
-                    return new BigDecimal(cell.getStringCellValue().trim());
-                } catch (NumberFormatException e) {
-                    return null;
-                }
-            default:
-                return null;
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            return null;
         }
     }
 
-    private Integer getCellValueAsInteger(Cell cell) {
-        if (cell == null) return null;
+    private Integer parseInteger(String value) {
+        if (value == null) return null;
 
-        switch (cell.getCellType()) {
-            case NUMERIC:
-                return (int) cell.getNumericCellValue();
-            case STRING:
-                try {
-                    return Integer.parseInt(cell.getStringCellValue().trim());
-                } catch (NumberFormatException e) {
-                    return null;
-                }
-            default:
-                return null;
+        try {
+            return new BigDecimal(value).intValue();
+        } catch (NumberFormatException e) {
+            return null;
         }
     }
 
-    private Boolean getCellValueAsBoolean(Cell cell) {
-        if (cell == null) return false;
+    private Boolean parseBoolean(String value) {
+        if (value == null) return false;
 
-        switch (cell.getCellType()) {
-            case BOOLEAN:
-                return cell.getBooleanCellValue();
-            case STRING:
-                String value = cell.getStringCellValue().trim().toLowerCase();
-                return value.equals("true") || value.equals("yes") || value.equals("1");
-            case NUMERIC:
-                return cell.getNumericCellValue() == 1;
-            default:
-                return false;
-        }
+        String normalized = value.toLowerCase();
+        return normalized.equals("true") || normalized.equals("yes") || normalized.equals("1");
     }
 
     // Generate Excel template
@@ -203,27 +394,7 @@ public class BulkUploadService {
         Workbook workbook = new XSSFWorkbook();
         Sheet sheet = workbook.createSheet("Products");
 
-        // Create header row
-        Row headerRow = sheet.createRow(0);
-        String[] headers = {
-                "Product Name*", "Description", "Price*", "Discount Price",
-                "Stock Quantity*", "Category*", "Brand*", "Image URL",
-                "Size", "Weight", "Ingredients", "Is Featured (true/false)"
-        };
-
-        CellStyle headerStyle = workbook.createCellStyle();
-        Font headerFont = workbook.createFont();
-        headerFont.setBold(true);
-        headerStyle.setFont(headerFont);
-        headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-        headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
-            sheet.setColumnWidth(i, 4000);
-        }
+        writeHeaderRow(workbook, sheet);
 
         // Add sample data row
         Row sampleRow = sheet.createRow(1);
@@ -239,7 +410,77 @@ public class BulkUploadService {
         sampleRow.createCell(9).setCellValue("10g");
         sampleRow.createCell(10).setCellValue("Vitamin E, Aloe Vera");
         sampleRow.createCell(11).setCellValue("true");
+        sampleRow.createCell(12).setCellValue("LIP-RED-001");
 
         return workbook;
     }
+
+    // Bold header row with the template columns
+    static void writeHeaderRow(Workbook workbook, Sheet sheet) {
+        Row headerRow = sheet.createRow(0);
+
+        CellStyle headerStyle = workbook.createCellStyle();
+        Font headerFont = workbook.createFont();
+        headerFont.setBold(true);
+        headerStyle.setFont(headerFont);
+        headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+        headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+
+        for (int i = 0; i < TEMPLATE_HEADERS.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(TEMPLATE_HEADERS[i]);
+            cell.setCellStyle(headerStyle);
+            sheet.setColumnWidth(i, 4000);
+        }
+    }
+
+    // Collects valid rows into chunks, writing each chunk as soon as it is full
+    private class ChunkWriter {
+
+        private final ImportProgressListener listener;
+        private final List<Product> chunk = new ArrayList<>(batchSize);
+        private final List<Integer> chunkRows = new ArrayList<>(batchSize);
+        private int rowNumber;
+
+        ChunkWriter(ImportProgressListener listener) {
+            this.listener = listener;
+        }
+
+        int nextRowNumber() {
+            return ++rowNumber;
+        }
+
+        int getRowNumber() {
+            return rowNumber;
+        }
+
+        void add(int rowNumber, Product product) {
+            if (product == null) {
+                return;
+            }
+
+            chunk.add(product);
+            chunkRows.add(rowNumber);
+
+            if (chunk.size() >= batchSize) {
+                saveChunk(chunk, chunkRows, listener);
+                listener.chunkCompleted(rowNumber);
+                if (listener.isCancelled()) {
+                    throw new ImportCancelledException();
+                }
+            }
+        }
+
+        void fail(int rowNumber, String message) {
+            listener.rowFailed(rowNumber, message);
+        }
+
+        void finish() {
+            saveChunk(chunk, chunkRows, listener);
+            listener.chunkCompleted(rowNumber);
+        }
+    }
+
+    private static class ImportCancelledException extends RuntimeException {
+    }
 }
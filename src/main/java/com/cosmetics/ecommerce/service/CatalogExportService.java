@@ -0,0 +1,152 @@
+package com.cosmetics.ecommerce.service;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Exports the active catalog in the bulk upload template format, so an export
+ * can be edited and uploaded again.
+ *
+ * Products are read through a forward-only JDBC cursor and written straight to
+ * the output stream, row by row. Neither entities nor the whole result set are
+ * held in memory: MySQL streams the rows, and the workbook only keeps a small
+ * window of rows before flushing them to a temp file.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogExportService {
+
+    private static final String EXPORT_SQL =
+            "SELECT p.name, p.description, p.price, p.discount_price, p.stock_quantity, " +
+                    "c.name AS category_name, b.name AS brand_name, p.image_url, p.size, p.weight, " +
+                    "p.ingredients, p.is_featured, p.sku " +
+                    "FROM products p " +
+                    "LEFT JOIN categories c ON c.id = p.category_id " +
+                    "LEFT JOIN brands b ON b.id = p.brand_id " +
+                    "WHERE p.is_active = true ORDER BY p.id";
+
+    // Rows kept in memory by SXSSF before older ones are flushed to disk
+    private static final int WORKBOOK_WINDOW = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void exportXlsx(OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(WORKBOOK_WINDOW);
+        workbook.setCompressTempFiles(true);
+
+        try {
+            Sheet sheet = workbook.createSheet("Products");
+            BulkUploadService.writeHeaderRow(workbook, sheet);
+
+            int[] rowIndex = {1};
+            streamProducts(rs -> {
+                Row row = sheet.createRow(rowIndex[0]++);
+                for (int i = 0; i < BulkUploadService.TEMPLATE_HEADERS.length; i++) {
+                    Object value = columnValue(rs, i);
+                    if (value instanceof BigDecimal number) {
+                        row.createCell(i).setCellValue(number.doubleValue());
+                    } else if (value instanceof Integer number) {
+                        row.createCell(i).setCellValue(number);
+                    } else if (value != null) {
+                        row.createCell(i).setCellValue(value.toString());
+                    }
+                }
+            });
+
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    public void exportCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeCsvLine(writer, BulkUploadService.TEMPLATE_HEADERS);
+
+        String[] values = new String[BulkUploadService.TEMPLATE_HEADERS.length];
+        try {
+            streamProducts(rs -> {
+                for (int i = 0; i < values.length; i++) {
+                    Object value = columnValue(rs, i);
+                    values[i] = value instanceof BigDecimal number ? number.toPlainString()
+                            : value != null ? value.toString() : null;
+                }
+                try {
+                    writeCsvLine(writer, values);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        writer.flush();
+    }
+
+    private void streamProducts(RowCallbackHandler handler) {
+        int fetchSize = streamingFetchSize();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, handler);
+    }
+
+    // MySQL Connector/J only streams rows one at a time with this fetch size; other drivers take a page size
+    private int streamingFetchSize() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return "MySQL".equalsIgnoreCase(database) ? Integer.MIN_VALUE : 500;
+    }
+
+    // Value of template column i, typed so numbers stay numeric in the workbook
+    private Object columnValue(ResultSet rs, int column) throws SQLException {
+        return switch (column) {
+            case 2, 3 -> rs.getBigDecimal(column + 1);
+            case 4 -> rs.getInt(column + 1);
+            case 11 -> String.valueOf(rs.getBoolean(column + 1));
+            default -> rs.getString(column + 1);
+        };
+    }
+
+    private void writeCsvLine(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(csvField(values[i]));
+            }
+        }
+        writer.write('\n');
+    }
+
+    // Quoted when it holds a separator, quote or line break; quotes are doubled
+    private String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
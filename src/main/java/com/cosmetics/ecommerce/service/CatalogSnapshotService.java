@@ -0,0 +1,327 @@
+package com.cosmetics.ecommerce.service;
+
+import com.cosmetics.ecommerce.dto.BrandDTO;
+import com.cosmetics.ecommerce.dto.CategoryDTO;
+import com.cosmetics.ecommerce.dto.ProductDTO;
+import com.cosmetics.ecommerce.entity.Product;
+import com.cosmetics.ecommerce.mapper.ProductMapper;
+import com.cosmetics.ecommerce.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read model of the active catalog for the public browse endpoints.
+ *
+ * A {@link Snapshot} holds every active product as a ready-made DTO, in id
+ * order, plus the per-category and per-brand lists and the featured and top
+ * selling selections. Snapshots are immutable and published through a
+ * volatile field, so readers never lock or touch the database.
+ *
+ * Writers copy on write: a {@link ProductChangedEvent} reloads only the
+ * changed products in the background, through a {@link ProductViewUpdater},
+ * and swaps in a new snapshot that shares everything else with the old one.
+ * Category and brand edits, whose details are copied into every product DTO,
+ * rebuild the snapshot in the background. Until the first load finishes,
+ * {@link #current()} returns null and callers fall back to the database.
+ *
+ * DTOs inside a snapshot are shared by every reader and must not be modified.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogSnapshotService {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final int FEATURED_LIMIT = 8;
+    private static final int TOP_SELLING_LIMIT = 10;
+
+    private static final Comparator<ProductDTO> BY_ID = Comparator.comparing(ProductDTO::getId);
+    // Best seller first; ties by id so the selection is stable
+    private static final Comparator<ProductDTO> BY_SALES = Comparator
+            .comparing((ProductDTO product) -> product.getSoldCount() != null ? product.getSoldCount() : 0)
+            .reversed()
+            .thenComparing(ProductDTO::getId);
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+
+    private volatile Snapshot snapshot;
+
+    private final ProductViewUpdater updater = new ProductViewUpdater(this::apply);
+
+    // The current snapshot, or null while the catalog is loading
+    public Snapshot current() {
+        return snapshot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    // Category or brand details are copied into product DTOs, so a change to either rebuilds everything
+    @Async
+    @TransactionalEventListener
+    public void onCategoryOrBrandChanged(CategoryOrBrandChangedEvent event) {
+        reload();
+    }
+
+    /**
+     * Rebuild the snapshot from the database, page by page.
+     * @return number of products loaded
+     */
+    public int reload() {
+        return updater.reload(() -> {
+            List<ProductDTO> products = new ArrayList<>();
+            Map<Long, CategoryDTO> categories = new HashMap<>();
+            Map<Long, BrandDTO> brands = new HashMap<>();
+
+            long lastId = 0;
+            List<Product> batch;
+            while (!(batch = productRepository.findActiveAfterId(lastId, PageRequest.of(0, LOAD_BATCH_SIZE))).isEmpty()) {
+                for (Product product : batch) {
+                    ProductDTO dto = productMapper.toDTO(product);
+                    // One shared category and brand DTO instead of a copy per product
+                    if (dto.getCategory() != null) {
+                        dto.setCategory(categories.computeIfAbsent(dto.getCategory().getId(), id -> dto.getCategory()));
+                    }
+                    if (dto.getBrand() != null) {
+                        dto.setBrand(brands.computeIfAbsent(dto.getBrand().getId(), id -> dto.getBrand()));
+                    }
+                    products.add(dto);
+                }
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+
+            Snapshot fresh = Snapshot.of(products);
+            synchronized (this) {
+                snapshot = fresh;
+            }
+            return products.size();
+        });
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void onProductsChanged(ProductChangedEvent event) {
+        updater.productsChanged(event.getProductIds());
+    }
+
+    // Synchronized with the swap in reload, so a patch is never built on a snapshot that was just replaced
+    private synchronized void apply(Collection<Long> productIds) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+
+        List<ProductDTO> changed = new ArrayList<>();
+        for (Product product : productRepository.findWithCategoryAndBrandByIdIn(productIds)) {
+            if (Boolean.TRUE.equals(product.getIsActive())) {
+                changed.add(productMapper.toDTO(product));
+            }
+        }
+        snapshot = current.patch(new HashSet<>(productIds), changed);
+    }
+
+    /**
+     * An immutable view of the active catalog. All lists are in ascending id order
+     * unless stated otherwise, and are shared between snapshots where unchanged.
+     */
+    public static final class Snapshot {
+
+        private final List<ProductDTO> products;
+        private final Map<Long, List<ProductDTO>> byCategory;
+        private final Map<Long, List<ProductDTO>> byBrand;
+        private final List<ProductDTO> featured;
+        private final List<ProductDTO> topSelling;
+
+        private Snapshot(List<ProductDTO> products, Map<Long, List<ProductDTO>> byCategory,
+                         Map<Long, List<ProductDTO>> byBrand) {
+            this.products = products;
+            this.byCategory = byCategory;
+            this.byBrand = byBrand;
+            this.featured = selectFeatured(products);
+            this.topSelling = selectTopSelling(products);
+        }
+
+        // From products already sorted by id
+        static Snapshot of(List<ProductDTO> products) {
+            return new Snapshot(Collections.unmodifiableList(new ArrayList<>(products)),
+                    group(products, ProductDTO::getCategory, CategoryDTO::getId),
+                    group(products, ProductDTO::getBrand, BrandDTO::getId));
+        }
+
+        public ProductDTO get(Long productId) {
+            int index = indexOf(products, productId);
+            return index >= 0 ? products.get(index) : null;
+        }
+
+        public List<ProductDTO> getProducts() {
+            return products;
+        }
+
+        public List<ProductDTO> getByCategory(Long categoryId) {
+            return byCategory.getOrDefault(categoryId, List.of());
+        }
+
+        public List<ProductDTO> getByBrand(Long brandId) {
+            return byBrand.getOrDefault(brandId, List.of());
+        }
+
+        // The first featured products by id, as the featured query returned them
+        public List<ProductDTO> getFeatured() {
+            return featured;
+        }
+
+        // Best sellers first
+        public List<ProductDTO> getTopSelling() {
+            return topSelling;
+        }
+
+        /**
+         * A new snapshot with the given products removed and the replacements added.
+         * Only the category and brand lists the changes touch are copied.
+         * @param touchedIds every product id the change concerns
+         * @param replacements current DTOs of the touched products that are still active
+         */
+        Snapshot patch(Set<Long> touchedIds, List<ProductDTO> replacements) {
+            List<ProductDTO> added = new ArrayList<>(replacements);
+            added.sort(BY_ID);
+
+            Set<Long> affectedCategories = new HashSet<>();
+            Set<Long> affectedBrands = new HashSet<>();
+            for (Long productId : touchedIds) {
+                ProductDTO previous = get(productId);
+                if (previous != null) {
+                    collectGroup(previous, affectedCategories, affectedBrands);
+                }
+            }
+            added.forEach(product -> collectGroup(product, affectedCategories, affectedBrands));
+
+            Map<Long, List<ProductDTO>> categories = new HashMap<>(byCategory);
+            for (Long categoryId : affectedCategories) {
+                putGroup(categories, categoryId, merge(getByCategory(categoryId), touchedIds, added.stream()
+                        .filter(product -> product.getCategory() != null && categoryId.equals(product.getCategory().getId()))
+                        .collect(Collectors.toList())));
+            }
+            Map<Long, List<ProductDTO>> brands = new HashMap<>(byBrand);
+            for (Long brandId : affectedBrands) {
+                putGroup(brands, brandId, merge(getByBrand(brandId), touchedIds, added.stream()
+                        .filter(product -> product.getBrand() != null && brandId.equals(product.getBrand().getId()))
+                        .collect(Collectors.toList())));
+            }
+
+            return new Snapshot(merge(products, touchedIds, added), categories, brands);
+        }
+
+        private static void collectGroup(ProductDTO product, Set<Long> categories, Set<Long> brands) {
+            if (product.getCategory() != null) {
+                categories.add(product.getCategory().getId());
+            }
+            if (product.getBrand() != null) {
+                brands.add(product.getBrand().getId());
+            }
+        }
+
+        private static void putGroup(Map<Long, List<ProductDTO>> groups, Long groupId, List<ProductDTO> products) {
+            if (products.isEmpty()) {
+                groups.remove(groupId);
+            } else {
+                groups.put(groupId, products);
+            }
+        }
+
+        // The sorted list without the removed ids, merged with the sorted additions
+        private static List<ProductDTO> merge(List<ProductDTO> sorted, Set<Long> removedIds, List<ProductDTO> additions) {
+            List<ProductDTO> merged = new ArrayList<>(sorted.size() + additions.size());
+            int next = 0;
+            for (ProductDTO product : sorted) {
+                if (removedIds.contains(product.getId())) {
+                    continue;
+                }
+                while (next < additions.size() && additions.get(next).getId() < product.getId()) {
+                    merged.add(additions.get(next++));
+                }
+                merged.add(product);
+            }
+            while (next < additions.size()) {
+                merged.add(additions.get(next++));
+            }
+            return Collections.unmodifiableList(merged);
+        }
+
+        private static <G> Map<Long, List<ProductDTO>> group(List<ProductDTO> products, Function<ProductDTO, G> groupOf,
+                                                              Function<G, Long> idOf) {
+            Map<Long, List<ProductDTO>> groups = new HashMap<>();
+            for (ProductDTO product : products) {
+                G group = groupOf.apply(product);
+                if (group != null) {
+                    groups.computeIfAbsent(idOf.apply(group), id -> new ArrayList<>()).add(product);
+                }
+            }
+            groups.replaceAll((id, list) -> Collections.unmodifiableList(list));
+            return groups;
+        }
+
+        private static List<ProductDTO> selectFeatured(List<ProductDTO> products) {
+            List<ProductDTO> featured = new ArrayList<>(FEATURED_LIMIT);
+            for (ProductDTO product : products) {
+                if (featured.size() == FEATURED_LIMIT) {
+                    break;
+                }
+                if (Boolean.TRUE.equals(product.getIsFeatured())) {
+                    featured.add(product);
+                }
+            }
+            return Collections.unmodifiableList(featured);
+        }
+
+        private static List<ProductDTO> selectTopSelling(List<ProductDTO> products) {
+            // Head is the weakest of the best seen so far
+            PriorityQueue<ProductDTO> best = new PriorityQueue<>(TOP_SELLING_LIMIT + 1, BY_SALES.reversed());
+            for (ProductDTO product : products) {
+                best.add(product);
+                if (best.size() > TOP_SELLING_LIMIT) {
+                    best.poll();
+                }
+            }
+            List<ProductDTO> topSelling = new ArrayList<>(best);
+            topSelling.sort(BY_SALES);
+            return Collections.unmodifiableList(topSelling);
+        }
+
+        private static int indexOf(List<ProductDTO> sorted, Long productId) {
+            int low = 0;
+            int high = sorted.size() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int compared = sorted.get(mid).getId().compareTo(productId);
+                if (compared < 0) {
+                    low = mid + 1;
+                } else if (compared > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+}
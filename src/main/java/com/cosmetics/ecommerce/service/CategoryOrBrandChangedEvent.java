@@ -0,0 +1,17 @@
+package com.cosmetics.ecommerce.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published when a category or brand is edited, deactivated or re-activated.
+ * In-memory product views that copy category and brand details reload after
+ * the transaction commits.
+ */
+@Getter
+@RequiredArgsConstructor
+public class CategoryOrBrandChangedEvent {
+
+    private final String type;  // category or brand
+    private final Long id;
+}
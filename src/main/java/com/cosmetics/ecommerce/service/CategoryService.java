@@ -3,10 +3,11 @@ package com.cosmetics.ecommerce.service;
 import com.cosmetics.ecommerce.dto.CategoryDTO;
 import com.cosmetics.ecommerce.dto.CategoryRequest;
 import com.cosmetics.ecommerce.entity.Category;
+import com.cosmetics.ecommerce.mapper.CategoryMapper;
 import com.cosmetics.ecommerce.repository.CategoryRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -18,13 +19,14 @@ import java.util.stream.Collectors;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
-    private final ModelMapper modelMapper;
+    private final CategoryMapper categoryMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Get all categories
     public List<CategoryDTO> getAllCategories() {
         return categoryRepository.findAll()
                 .stream()
-                .map(category -> modelMapper.map(category, CategoryDTO.class))
+                .map(category -> categoryMapper.toDTO(category))
                 .collect(Collectors.toList());
     }
 
@@ -32,7 +34,7 @@ public class CategoryService {
     public List<CategoryDTO> getAllActiveCategories() {
         return categoryRepository.findByIsActiveTrue()
                 .stream()
-                .map(category -> modelMapper.map(category, CategoryDTO.class))
+                .map(category -> categoryMapper.toDTO(category))
                 .collect(Collectors.toList());
     }
 
@@ -41,7 +43,7 @@ public class CategoryService {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
 
-        return modelMapper.map(category, CategoryDTO.class);
+        return categoryMapper.toDTO(category);
     }
 
     // Create category
@@ -56,7 +58,7 @@ public class CategoryService {
         category.setImageUrl(request.getImageUrl());
 
         Category savedCategory = categoryRepository.save(category);
-        return modelMapper.map(savedCategory, CategoryDTO.class);
+        return categoryMapper.toDTO(savedCategory);
     }
 
     // Update category
@@ -75,7 +77,8 @@ public class CategoryService {
         category.setImageUrl(request.getImageUrl());
 
         Category updatedCategory = categoryRepository.save(category);
-        return modelMapper.map(updatedCategory, CategoryDTO.class);
+        eventPublisher.publishEvent(new CategoryOrBrandChangedEvent("category", id));
+        return categoryMapper.toDTO(updatedCategory);
     }
 
     // Delete category (soft delete)
@@ -85,6 +88,7 @@ public class CategoryService {
 
         category.setIsActive(false);
         categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryOrBrandChangedEvent("category", id));
     }
 
     // Activate category
@@ -94,5 +98,6 @@ public class CategoryService {
 
         category.setIsActive(true);
         categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryOrBrandChangedEvent("category", id));
     }
 }
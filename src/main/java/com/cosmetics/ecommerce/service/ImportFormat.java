@@ -0,0 +1,33 @@
+package com.cosmetics.ecommerce.service;
+
+// File formats accepted by the product bulk upload, chosen by file extension
+public enum ImportFormat {
+    XLSX(".xlsx"),
+    CSV(".csv"),
+    NDJSON(".ndjson");
+
+    private final String extension;
+
+    ImportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    // Null when the file name has no supported extension; .jsonl is accepted as NDJSON
+    public static ImportFormat fromFileName(String fileName) {
+        if (fileName == null) {
+            return null;
+        }
+
+        String lowerCaseName = fileName.toLowerCase();
+        for (ImportFormat format : values()) {
+            if (lowerCaseName.endsWith(format.extension)) {
+                return format;
+            }
+        }
+        return lowerCaseName.endsWith(".jsonl") ? NDJSON : null;
+    }
+}
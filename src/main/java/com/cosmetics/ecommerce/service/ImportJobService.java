@@ -0,0 +1,276 @@
+package com.cosmetics.ecommerce.service;
+
+import com.cosmetics.ecommerce.dto.ImportJobDTO;
+import com.cosmetics.ecommerce.entity.ImportJob;
+import com.cosmetics.ecommerce.repository.ImportJobRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Runs bulk product imports in the background.
+ *
+ * The upload is copied to a temp file on the request thread, an ImportJob row
+ * is created and the import is handed to a small bounded pool. Progress is
+ * written to the job after every committed chunk so it can be polled, and a
+ * cancel request is picked up at the next chunk boundary.
+ *
+ * Each job records the instance ({@code app.order.node-id}) that accepted it,
+ * and that instance refreshes a heartbeat on the jobs it holds. A restarting
+ * instance fails only its own unfinished jobs; jobs of an instance that
+ * stopped for good are failed by any instance once their heartbeat is older
+ * than {@code app.bulk-upload.stale-after-ms}.
+ */
+@Service
+@RequiredArgsConstructor
+public class ImportJobService {
+
+    // Row errors kept on the job; the counters still cover every row
+    static final int MAX_STORED_ERRORS = 100;
+
+    private final ImportJobRepository importJobRepository;
+    private final BulkUploadService bulkUploadService;
+
+    @Value("${app.bulk-upload.max-concurrent-jobs:2}")
+    private int maxConcurrentJobs;
+
+    @Value("${app.bulk-upload.queue-capacity:10}")
+    private int queueCapacity;
+
+    @Value("${app.order.node-id:0}")
+    private long nodeId;
+
+    @Value("${app.bulk-upload.stale-after-ms:300000}")
+    private long staleAfterMs;
+
+    private static final List<ImportJob.Status> UNFINISHED = List.of(ImportJob.Status.PENDING, ImportJob.Status.RUNNING);
+
+    // Private pool: exposing an Executor bean would replace Spring Boot's default @Async executor
+    private ThreadPoolTaskExecutor executor;
+
+    // Jobs queued or running on this instance
+    private final Set<Long> heldJobs = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void startExecutor() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentJobs);
+        executor.setMaxPoolSize(maxConcurrentJobs);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("bulk-import-");
+        executor.initialize();
+    }
+
+    @PreDestroy
+    public void stopExecutor() {
+        executor.shutdown();
+    }
+
+    // Jobs this instance had queued or running when it stopped can't be resumed
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        for (ImportJob job : importJobRepository.findByOwnerNodeAndStatusIn(nodeId, UNFINISHED)) {
+            finish(job, ImportJob.Status.FAILED, "Interrupted by application restart");
+        }
+        failStaleJobs();
+    }
+
+    @Scheduled(initialDelayString = "${app.bulk-upload.heartbeat-interval-ms:30000}",
+            fixedDelayString = "${app.bulk-upload.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        if (!heldJobs.isEmpty()) {
+            importJobRepository.heartbeat(List.copyOf(heldJobs), LocalDateTime.now());
+        }
+        failStaleJobs();
+    }
+
+    // Unfinished jobs nobody refreshed lately belong to an instance that is gone
+    void failStaleJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(staleAfterMs * 1_000_000);
+        for (ImportJob job : importJobRepository.findStale(UNFINISHED, cutoff)) {
+            if (!heldJobs.contains(job.getId())) {
+                finish(job, ImportJob.Status.FAILED, "Import instance stopped responding");
+            }
+        }
+    }
+
+    public ImportJobDTO startImport(MultipartFile file) throws IOException {
+        ImportFormat format = ImportFormat.fromFileName(file.getOriginalFilename());
+        if (format == null) {
+            throw new RuntimeException("Only .xlsx, .csv and .ndjson files are supported");
+        }
+
+        Path uploadFile = Files.createTempFile("bulk-upload-", format.getExtension());
+        file.transferTo(uploadFile);
+
+        ImportJob job = new ImportJob();
+        job.setFileName(file.getOriginalFilename());
+        job.setOwnerNode(nodeId);
+        job = importJobRepository.save(job);
+
+        Long jobId = job.getId();
+        heldJobs.add(jobId);
+        try {
+            executor.execute(() -> runImport(jobId, uploadFile, format));
+        } catch (TaskRejectedException e) {
+            heldJobs.remove(jobId);
+            Files.deleteIfExists(uploadFile);
+            finish(job, ImportJob.Status.FAILED, "Too many imports in progress, try again later");
+        }
+
+        return convertToDTO(job);
+    }
+
+    public ImportJobDTO getJob(Long id) {
+        return convertToDTO(findJob(id));
+    }
+
+    public List<ImportJobDTO> getRecentJobs() {
+        return importJobRepository.findTop20ByOrderByCreatedAtDesc()
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    public ImportJobDTO cancelJob(Long id) {
+        ImportJob job = findJob(id);
+        if (job.getStatus() != ImportJob.Status.PENDING && job.getStatus() != ImportJob.Status.RUNNING) {
+            throw new RuntimeException("Cannot cancel import in " + job.getStatus() + " status");
+        }
+
+        importJobRepository.requestCancel(id);
+        return convertToDTO(findJob(id));
+    }
+
+    private void runImport(Long jobId, Path uploadFile, ImportFormat format) {
+        ImportJob job = findJob(jobId);
+
+        try {
+            if (job.getCancelRequested()) {
+                finish(job, ImportJob.Status.CANCELLED, null);
+                return;
+            }
+
+            job.setStatus(ImportJob.Status.RUNNING);
+            job.setStartedAt(LocalDateTime.now());
+            job = importJobRepository.save(job);
+
+            JobProgress progress = new JobProgress(job);
+            bulkUploadService.importProducts(uploadFile.toFile(), format, progress);
+
+            finish(progress.job, progress.cancelled ? ImportJob.Status.CANCELLED : ImportJob.Status.COMPLETED, null);
+        } catch (Exception e) {
+            finish(findJob(jobId), ImportJob.Status.FAILED, e.getMessage());
+        } finally {
+            heldJobs.remove(jobId);
+            try {
+                Files.deleteIfExists(uploadFile);
+            } catch (IOException e) {
+                System.err.println("Failed to delete import file " + uploadFile + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void finish(ImportJob job, ImportJob.Status status, String errorMessage) {
+        job.setStatus(status);
+        job.setErrorMessage(errorMessage);
+        job.setFinishedAt(LocalDateTime.now());
+        importJobRepository.save(job);
+    }
+
+    private ImportJob findJob(Long id) {
+        return importJobRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Import job not found with id: " + id));
+    }
+
+    private ImportJobDTO convertToDTO(ImportJob job) {
+        ImportJobDTO dto = new ImportJobDTO();
+        dto.setId(job.getId());
+        dto.setFileName(job.getFileName());
+        dto.setStatus(job.getStatus().name());
+        dto.setRowsParsed(job.getRowsParsed());
+        dto.setRowsInserted(job.getRowsInserted());
+        dto.setRowsUpdated(job.getRowsUpdated());
+        dto.setRowsUnchanged(job.getRowsUnchanged());
+        dto.setRowsFailed(job.getRowsFailed());
+        dto.setErrors(new ArrayList<>(job.getErrors()));
+        dto.setErrorMessage(job.getErrorMessage());
+        dto.setCancelRequested(job.getCancelRequested());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setStartedAt(job.getStartedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        return dto;
+    }
+
+    // Accumulates counters in memory and writes them to the job row once per chunk
+    private class JobProgress implements ImportProgressListener {
+
+        private ImportJob job;
+        private int inserted;
+        private int updated;
+        private int unchanged;
+        private int failed;
+        private boolean cancelled;
+
+        JobProgress(ImportJob job) {
+            this.job = job;
+        }
+
+        @Override
+        public void rowSucceeded(int rowNumber, String productName) {
+            inserted++;
+        }
+
+        @Override
+        public void rowUpdated(int rowNumber, String productName) {
+            updated++;
+        }
+
+        @Override
+        public void rowUnchanged(int rowNumber) {
+            unchanged++;
+        }
+
+        @Override
+        public void rowFailed(int rowNumber, String message) {
+            failed++;
+            if (job.getErrors().size() < MAX_STORED_ERRORS) {
+                job.getErrors().add("Row " + rowNumber + ": " + message);
+            }
+        }
+
+        @Override
+        public void chunkCompleted(int rowsParsed) {
+            job.setRowsParsed(rowsParsed);
+            job.setRowsInserted(inserted);
+            job.setRowsUpdated(updated);
+            job.setRowsUnchanged(unchanged);
+            job.setRowsFailed(failed);
+            job = importJobRepository.save(job);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            cancelled = Boolean.TRUE.equals(importJobRepository.isCancelRequested(job.getId()));
+            return cancelled;
+        }
+    }
+}
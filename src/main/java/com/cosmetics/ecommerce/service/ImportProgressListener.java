@@ -0,0 +1,25 @@
+package com.cosmetics.ecommerce.service;
+
+/**
+ * Receives the outcome of a bulk import as it runs.
+ * Row numbers count data rows from 1, the header row excluded.
+ */
+public interface ImportProgressListener {
+
+    // A new product was inserted
+    void rowSucceeded(int rowNumber, String productName);
+
+    // An existing product with the row's SKU was updated
+    void rowUpdated(int rowNumber, String productName);
+
+    // The row's SKU matched a product whose imported content is identical; nothing was written
+    void rowUnchanged(int rowNumber);
+
+    void rowFailed(int rowNumber, String message);
+
+    // Called after each chunk is committed with the number of rows read so far
+    void chunkCompleted(int rowsParsed);
+
+    // Checked after each chunk; returning true stops the import, committed chunks are kept
+    boolean isCancelled();
+}
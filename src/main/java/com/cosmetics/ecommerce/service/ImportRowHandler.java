@@ -0,0 +1,7 @@
+package com.cosmetics.ecommerce.service;
+
+// Receives the cell values of one data row (header excluded); missing or blank cells are null
+@FunctionalInterface
+public interface ImportRowHandler {
+    void handleRow(String[] values);
+}
@@ -0,0 +1,116 @@
+package com.cosmetics.ecommerce.service;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index from normalized ingredient names to the bitmap of products
+ * containing them, for "contains" and "free-from" filters.
+ *
+ * The free-text ingredient list of a product is split into ingredients when
+ * the product is indexed: lower-cased, with concentrations, markers and
+ * punctuation dropped, and with names in parentheses or after a slash kept as
+ * aliases ("Aqua (Water)" gives "aqua" and "water"). A filter term matches
+ * every ingredient whose name contains it, so "paraben" covers methylparaben
+ * and propylparaben. The union behind each term is cached until the next
+ * change, which makes a repeated exclusion a single bitmap AND-NOT.
+ *
+ * Writes are not thread-safe; ProductFacetIndex is guarded by
+ * ProductFacetService's read/write lock, and concurrent readers only share
+ * the term cache.
+ */
+public class IngredientIndex {
+
+    private static final int MAX_CACHED_TERMS = 1000;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[,;/|•\\n\\r()\\[\\]]+");
+    private static final Pattern CONCENTRATION = Pattern.compile("\\d+(?:[.,]\\d+)?\\s*%");
+    private static final Pattern NON_NAME = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+
+    private final Map<String, RoaringBitmap> productsByIngredient = new HashMap<>();
+    private final Map<String, RoaringBitmap> termCache = new ConcurrentHashMap<>();
+
+    public void add(int productBit, Collection<String> ingredients) {
+        for (String ingredient : ingredients) {
+            productsByIngredient.computeIfAbsent(ingredient, key -> new RoaringBitmap()).add(productBit);
+        }
+        termCache.clear();
+    }
+
+    public void remove(int productBit, Collection<String> ingredients) {
+        for (String ingredient : ingredients) {
+            RoaringBitmap products = productsByIngredient.get(ingredient);
+            if (products != null) {
+                products.remove(productBit);
+                if (products.isEmpty()) {
+                    productsByIngredient.remove(ingredient);
+                }
+            }
+        }
+        termCache.clear();
+    }
+
+    public int ingredientCount() {
+        return productsByIngredient.size();
+    }
+
+    // Products having any ingredient whose name contains the term; callers must not modify the result
+    public RoaringBitmap matching(String term) {
+        String normalized = normalizeName(term);
+        if (normalized.isEmpty()) {
+            return new RoaringBitmap();
+        }
+
+        RoaringBitmap cached = termCache.get(normalized);
+        if (cached != null) {
+            return cached;
+        }
+
+        RoaringBitmap products = new RoaringBitmap();
+        productsByIngredient.forEach((ingredient, bitmap) -> {
+            if (ingredient.contains(normalized)) {
+                products.or(bitmap);
+            }
+        });
+        if (termCache.size() >= MAX_CACHED_TERMS) {
+            termCache.clear();
+        }
+        termCache.put(normalized, products);
+        return products;
+    }
+
+    // The distinct normalized ingredients of a free-text ingredient list
+    public static Set<String> parse(String ingredients) {
+        Set<String> names = new LinkedHashSet<>();
+        if (ingredients == null || ingredients.isBlank()) {
+            return names;
+        }
+
+        for (String part : SEPARATORS.split(ingredients)) {
+            String name = normalizeName(part);
+            if (!name.isEmpty() && !NUMBER.matcher(name).matches()) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    // "Niacinamide 10%." -> "niacinamide", "Hyaluronic-Acid*" -> "hyaluronic acid"
+    static String normalizeName(String name) {
+        if (name == null) {
+            return "";
+        }
+        String lower = CONCENTRATION.matcher(name.toLowerCase(Locale.ROOT)).replaceAll(" ");
+        String normalized = NON_NAME.matcher(lower).replaceAll(" ").trim();
+        return normalized.startsWith("and ") ? normalized.substring(4) : normalized;
+    }
+}
@@ -0,0 +1,76 @@
+package com.cosmetics.ecommerce.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Stock bookkeeping for orders.
+ *
+ * Every change is a conditional UPDATE executed by the database, so two
+ * checkouts racing for the last unit can never both succeed. All lines of an
+ * order are sent as one JDBC batch in ascending product id order. Callers run
+ * inside their own transaction and throw when {@link #reserveStock} reports
+ * failures, which rolls back every decrement already applied for the order.
+ * Stock is part of the bulk import content hash, so every change clears it and
+ * the next import of the same sheet restocks the product.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class InventoryService {
+
+    private static final String DECREMENT_STOCK_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity - ?, sold_count = sold_count + ?, " +
+                    "content_hash = NULL, updated_at = CURRENT_TIMESTAMP WHERE id = ? AND stock_quantity >= ?";
+
+    private static final String INCREMENT_STOCK_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity + ?, sold_count = sold_count - ?, " +
+                    "content_hash = NULL, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Take stock for all lines of an order.
+     * @param quantities product id to requested quantity
+     * @return ids of the products that did not have enough stock (empty when all succeeded)
+     */
+    public List<Long> reserveStock(Map<Long, Integer> quantities) {
+        List<Map.Entry<Long, Integer>> lines = new ArrayList<>(new TreeMap<>(quantities).entrySet());
+
+        List<Object[]> batchArgs = new ArrayList<>(lines.size());
+        for (Map.Entry<Long, Integer> line : lines) {
+            batchArgs.add(new Object[]{line.getValue(), line.getValue(), line.getKey(), line.getValue()});
+        }
+
+        int[] updateCounts = jdbcTemplate.batchUpdate(DECREMENT_STOCK_SQL, batchArgs);
+
+        List<Long> failedProductIds = new ArrayList<>();
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == 0) {
+                failedProductIds.add(lines.get(i).getKey());
+            }
+        }
+
+        return failedProductIds;
+    }
+
+    /**
+     * Put stock back for all lines of a cancelled order.
+     * @param quantities product id to quantity being returned
+     */
+    public void restoreStock(Map<Long, Integer> quantities) {
+        List<Object[]> batchArgs = new ArrayList<>(quantities.size());
+        for (Map.Entry<Long, Integer> line : new TreeMap<>(quantities).entrySet()) {
+            batchArgs.add(new Object[]{line.getValue(), line.getValue(), line.getKey()});
+        }
+
+        jdbcTemplate.batchUpdate(INCREMENT_STOCK_SQL, batchArgs);
+    }
+}
@@ -0,0 +1,29 @@
+package com.cosmetics.ecommerce.service;
+
+import com.cosmetics.ecommerce.entity.Order;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Published by OrderService whenever an order is created or its status or
+ * payment status changes. Carries the full analytics-relevant state of the
+ * order, so listeners can apply it idempotently.
+ */
+@Getter
+@RequiredArgsConstructor
+public class OrderChangedEvent {
+
+    private final Long orderId;
+    private final LocalDateTime createdAt;
+    private final BigDecimal totalAmount;
+    private final Order.OrderStatus status;
+    private final Order.PaymentStatus paymentStatus;
+
+    public static OrderChangedEvent of(Order order) {
+        return new OrderChangedEvent(order.getId(), order.getCreatedAt(), order.getTotalAmount(),
+                order.getStatus(), order.getPaymentStatus());
+    }
+}
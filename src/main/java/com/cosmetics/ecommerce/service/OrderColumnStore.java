@@ -0,0 +1,205 @@
+package com.cosmetics.ecommerce.service;
+
+import com.cosmetics.ecommerce.entity.Order;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Optional in-memory copy of the order columns the admin analytics need,
+ * stored as parallel primitive arrays (one slot per order) so aggregations
+ * are tight loops without entities, boxing or database round trips.
+ *
+ * Enabled with {@code app.analytics.columnar.enabled=true}. The store is
+ * loaded from the orders table once the application is ready and then kept up
+ * to date from {@link OrderChangedEvent}s after their transaction commits.
+ * Events carry the full order state and are applied as upserts, so an event
+ * arriving while the initial load runs is harmless.
+ *
+ * Times are stored as the wall-clock values of {@code createdAt} (treated as
+ * UTC), matching how the rest of the analytics code compares LocalDateTimes.
+ */
+@Component
+@ConditionalOnProperty(name = "app.analytics.columnar.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class OrderColumnStore {
+
+    private static final int INITIAL_CAPACITY = 1 << 14;
+    private static final byte PAID = (byte) Order.PaymentStatus.PAID.ordinal();
+    private static final Order.OrderStatus[] STATUSES = Order.OrderStatus.values();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> rowByOrderId = new HashMap<>();
+
+    private int[] epochDays = new int[INITIAL_CAPACITY];
+    private long[] createdEpochSeconds = new long[INITIAL_CAPACITY];
+    private long[] amountsInPaise = new long[INITIAL_CAPACITY];
+    private byte[] statuses = new byte[INITIAL_CAPACITY];
+    private byte[] paymentStatuses = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Initial load, streamed row by row from the orders table
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            jdbcTemplate.query(
+                    "SELECT id, created_at, total_amount, status, payment_status FROM orders",
+                    (RowCallbackHandler) rs -> {
+                        upsert(rs.getLong("id"),
+                                rs.getObject("created_at", LocalDateTime.class),
+                                rs.getBigDecimal("total_amount"),
+                                Order.OrderStatus.valueOf(rs.getString("status")),
+                                Order.PaymentStatus.valueOf(rs.getString("payment_status")));
+                    });
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            upsert(event.getOrderId(), event.getCreatedAt(), event.getTotalAmount(),
+                    event.getStatus(), event.getPaymentStatus());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Paid revenue per day.
+     * @return paise per day, index 0 being {@code fromEpochDay}
+     */
+    public long[] paidRevenueByDay(int fromEpochDay, int toEpochDay) {
+        long[] revenue = new long[toEpochDay - fromEpochDay + 1];
+
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                int slot = epochDays[i] - fromEpochDay;
+                if (paymentStatuses[i] == PAID && slot >= 0 && slot < revenue.length) {
+                    revenue[slot] += amountsInPaise[i];
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return revenue;
+    }
+
+    /**
+     * Paid revenue of orders created strictly after each of the given times.
+     * @return paise, one entry per threshold
+     */
+    public long[] paidRevenueAfter(LocalDateTime... thresholds) {
+        long[] bounds = new long[thresholds.length];
+        for (int t = 0; t < thresholds.length; t++) {
+            bounds[t] = toEpochSecond(thresholds[t]);
+        }
+        long[] revenue = new long[thresholds.length];
+
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                // All-ones mask for paid orders, zero otherwise, so the inner loop has no data-dependent branch
+                long paidAmount = amountsInPaise[i] & -(long) (paymentStatuses[i] == PAID ? 1 : 0);
+                long created = createdEpochSeconds[i];
+                for (int t = 0; t < bounds.length; t++) {
+                    revenue[t] += created > bounds[t] ? paidAmount : 0L;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return revenue;
+    }
+
+    // Number of orders per status, indexed by OrderStatus ordinal
+    public long[] countByStatus() {
+        long[] counts = new long[STATUSES.length];
+
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                counts[statuses[i]]++;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return counts;
+    }
+
+    public int orderCount() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static double paiseToAmount(long paise) {
+        return paise / 100.0;
+    }
+
+    private void upsert(long orderId, LocalDateTime createdAt, BigDecimal totalAmount,
+                        Order.OrderStatus status, Order.PaymentStatus paymentStatus) {
+        Integer row = rowByOrderId.get(orderId);
+        if (row == null) {
+            ensureCapacity(size + 1);
+            row = size++;
+            rowByOrderId.put(orderId, row);
+        }
+
+        epochDays[row] = (int) createdAt.toLocalDate().toEpochDay();
+        createdEpochSeconds[row] = toEpochSecond(createdAt);
+        amountsInPaise[row] = totalAmount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        statuses[row] = (byte) status.ordinal();
+        paymentStatuses[row] = (byte) paymentStatus.ordinal();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= epochDays.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, epochDays.length * 2);
+        epochDays = Arrays.copyOf(epochDays, newCapacity);
+        createdEpochSeconds = Arrays.copyOf(createdEpochSeconds, newCapacity);
+        amountsInPaise = Arrays.copyOf(amountsInPaise, newCapacity);
+        statuses = Arrays.copyOf(statuses, newCapacity);
+        paymentStatuses = Arrays.copyOf(paymentStatuses, newCapacity);
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+}
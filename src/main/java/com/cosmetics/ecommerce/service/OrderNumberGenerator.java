@@ -0,0 +1,10 @@
+package com.cosmetics.ecommerce.service;
+
+/**
+ * Source of unique order numbers.
+ * Implementations must be thread-safe and never return the same value twice.
+ */
+public interface OrderNumberGenerator {
+
+    String nextOrderNumber();
+}
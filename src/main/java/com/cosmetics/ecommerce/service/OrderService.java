@@ -5,9 +5,11 @@ import com.cosmetics.ecommerce.entity.Order;
 import com.cosmetics.ecommerce.entity.Product;
 import com.cosmetics.ecommerce.entity.User;
 import com.cosmetics.ecommerce.repository.OrderRepository;
+import com.cosmetics.ecommerce.repository.OrderStatsProjection;
 import com.cosmetics.ecommerce.repository.ProductRepository;
 import com.cosmetics.ecommerce.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
@@ -18,7 +20,11 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,6 +36,10 @@ public class OrderService {
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
     private final EmailService emailService;
+    private final InventoryService inventoryService;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final SalesRollupService salesRollupService;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Create new order
     public OrderDTO createOrder(CreateOrderRequest request) {
@@ -38,6 +48,7 @@ public class OrderService {
 
         // Create order
         Order order = new Order();
+        order.setOrderNumber(orderNumberGenerator.nextOrderNumber());
         order.setUser(user);
         order.setPaymentMethod(request.getPaymentMethod());
         order.setShippingAddress(request.getShippingAddress());
@@ -55,14 +66,20 @@ public class OrderService {
         // Create order items and calculate total
         BigDecimal totalAmount = BigDecimal.ZERO;
         List<com.cosmetics.ecommerce.entity.OrderItem> orderItems = new ArrayList<>();
+        Map<Long, Integer> requestedQuantities = new HashMap<>();
 
-        for (OrderItemRequest itemRequest : request.getItems()) {
-            Product product = productRepository.findById(itemRequest.getProductId())
-                    .orElseThrow(() -> new RuntimeException("Product not found"));
+        // Load and lock every referenced product in one query
+        Set<Long> productIds = request.getItems().stream()
+                .map(OrderItemRequest::getProductId)
+                .collect(Collectors.toSet());
+        Map<Long, Product> products = productRepository.findAllByIdForUpdate(productIds)
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
 
-            // Check stock availability
-            if (product.getStockQuantity() < itemRequest.getQuantity()) {
-                throw new RuntimeException("Insufficient stock for product: " + product.getName());
+        for (OrderItemRequest itemRequest : request.getItems()) {
+            Product product = products.get(itemRequest.getProductId());
+            if (product == null) {
+                throw new RuntimeException("Product not found");
             }
 
             // Create order item
@@ -79,16 +96,25 @@ public class OrderService {
             orderItems.add(orderItem);
             totalAmount = totalAmount.add(subtotal);
 
-            // Update product stock
-            product.setStockQuantity(product.getStockQuantity() - itemRequest.getQuantity());
-            product.setSoldCount(product.getSoldCount() + itemRequest.getQuantity());
-            productRepository.save(product);
+            requestedQuantities.merge(product.getId(), itemRequest.getQuantity(), Integer::sum);
         }
 
+        // Take stock atomically; any failure rolls back the whole order
+        List<Long> failedProductIds = inventoryService.reserveStock(requestedQuantities);
+        if (!failedProductIds.isEmpty()) {
+            throw new RuntimeException("Insufficient stock for product: " + failedProductIds.stream()
+                    .map(id -> products.get(id).getName())
+                    .collect(Collectors.joining(", ")));
+        }
+
+        eventPublisher.publishEvent(ProductChangedEvent.stockChanged(requestedQuantities.keySet()));
+
         order.setOrderItems(orderItems);
         order.setTotalAmount(totalAmount);
 
         Order savedOrder = orderRepository.save(order);
+        salesRollupService.recordOrderCreated(savedOrder);
+        eventPublisher.publishEvent(OrderChangedEvent.of(savedOrder));
 
         emailService.sendOrderConfirmationEmail(user, savedOrder);
 
@@ -155,6 +181,7 @@ public class OrderService {
 
         //  Store previous status BEFORE updating
         Order.OrderStatus previousStatus = order.getStatus();
+        Order.PaymentStatus previousPaymentStatus = order.getPaymentStatus();
 
         //  Update order status
         order.setStatus(newStatus);
@@ -167,6 +194,8 @@ public class OrderService {
 
         //  Save order
         Order updatedOrder = orderRepository.save(order);
+        salesRollupService.recordOrderUpdated(updatedOrder, previousStatus, previousPaymentStatus);
+        eventPublisher.publishEvent(OrderChangedEvent.of(updatedOrder));
 
         //  Send email to CUSTOMER (not admin)
         User customer = order.getUser();
@@ -214,53 +243,42 @@ public class OrderService {
             throw new RuntimeException("Cannot cancel order in " + order.getStatus() + " status");
         }
 
+        Order.OrderStatus previousStatus = order.getStatus();
         order.setStatus(Order.OrderStatus.CANCELLED);
 
         // Restore product stock
+        Map<Long, Integer> returnedQuantities = new HashMap<>();
         for (com.cosmetics.ecommerce.entity.OrderItem item : order.getOrderItems()) {
-            Product product = item.getProduct();
-            product.setStockQuantity(product.getStockQuantity() + item.getQuantity());
-            product.setSoldCount(product.getSoldCount() - item.getQuantity());
-            productRepository.save(product);
+            returnedQuantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
         }
+        inventoryService.restoreStock(returnedQuantities);
+        eventPublisher.publishEvent(ProductChangedEvent.stockChanged(returnedQuantities.keySet()));
 
         Order cancelledOrder = orderRepository.save(order);
+        salesRollupService.recordOrderUpdated(cancelledOrder, previousStatus, cancelledOrder.getPaymentStatus());
+        eventPublisher.publishEvent(OrderChangedEvent.of(cancelledOrder));
         return convertToDTO(cancelledOrder);
     }
 
     // Get order statistics (Admin only)
     public OrderStatsDTO getOrderStatistics() {
-        OrderStatsDTO stats = new OrderStatsDTO();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime startOfDay = now.withHour(0).withMinute(0).withSecond(0);
+        LocalDateTime endOfDay = now.withHour(23).withMinute(59).withSecond(59);
+        LocalDateTime startOfMonth = now.withDayOfMonth(1).withHour(0).withMinute(0);
+
+        OrderStatsProjection row = orderRepository.getOrderStatistics(startOfDay, endOfDay, startOfMonth, now);
 
-        stats.setTotalOrders((long) orderRepository.findAll().size());
-        stats.setPendingOrders(orderRepository.countByStatus(Order.OrderStatus.PENDING));
-        stats.setConfirmedOrders(orderRepository.countByStatus(Order.OrderStatus.CONFIRMED));
-        stats.setShippedOrders(orderRepository.countByStatus(Order.OrderStatus.SHIPPED));
-        stats.setDeliveredOrders(orderRepository.countByStatus(Order.OrderStatus.DELIVERED));
-        stats.setCancelledOrders(orderRepository.countByStatus(Order.OrderStatus.CANCELLED));
-
-        Double totalRevenue = orderRepository.getTotalRevenue();
-        stats.setTotalRevenue(totalRevenue != null ? totalRevenue : 0.0);
-
-        // Calculate today's revenue
-        LocalDateTime startOfDay = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime endOfDay = LocalDateTime.now().withHour(23).withMinute(59).withSecond(59);
-        List<Order> todayOrders = orderRepository.findOrdersByDateRange(startOfDay, endOfDay);
-        double todayRevenue = todayOrders.stream()
-                .filter(o -> o.getPaymentStatus() == Order.PaymentStatus.PAID)
-                .mapToDouble(o -> o.getTotalAmount().doubleValue())
-                .sum();
-        stats.setTodayRevenue(todayRevenue);
-
-        // Calculate this month's revenue
-        LocalDateTime startOfMonth = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0);
-        LocalDateTime endOfMonth = LocalDateTime.now();
-        List<Order> monthOrders = orderRepository.findOrdersByDateRange(startOfMonth, endOfMonth);
-        double monthRevenue = monthOrders.stream()
-                .filter(o -> o.getPaymentStatus() == Order.PaymentStatus.PAID)
-                .mapToDouble(o -> o.getTotalAmount().doubleValue())
-                .sum();
-        stats.setMonthRevenue(monthRevenue);
+        OrderStatsDTO stats = new OrderStatsDTO();
+        stats.setTotalOrders(row.getTotalOrders());
+        stats.setPendingOrders(valueOrZero(row.getPendingOrders()));
+        stats.setConfirmedOrders(valueOrZero(row.getConfirmedOrders()));
+        stats.setShippedOrders(valueOrZero(row.getShippedOrders()));
+        stats.setDeliveredOrders(valueOrZero(row.getDeliveredOrders()));
+        stats.setCancelledOrders(valueOrZero(row.getCancelledOrders()));
+        stats.setTotalRevenue(valueOrZero(row.getTotalRevenue()));
+        stats.setTodayRevenue(valueOrZero(row.getTodayRevenue()));
+        stats.setMonthRevenue(valueOrZero(row.getMonthRevenue()));
 
         return stats;
     }
@@ -281,6 +299,15 @@ public class OrderService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
+    // Helper: SUM over an empty table is null
+    private long valueOrZero(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    private double valueOrZero(BigDecimal value) {
+        return value != null ? value.doubleValue() : 0.0;
+    }
+
     // Helper: Convert Order to OrderDTO
     private OrderDTO convertToDTO(Order order) {
         OrderDTO dto = new OrderDTO();
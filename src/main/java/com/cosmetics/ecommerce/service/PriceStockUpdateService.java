@@ -0,0 +1,226 @@
+package com.cosmetics.ecommerce.service;
+
+import com.cosmetics.ecommerce.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk price and stock changes, the narrow counterpart of the full product import.
+ *
+ * Rows carry a product key (id or SKU) and any of price, discount price and
+ * stock quantity; a blank value leaves the column as it is. Rows are applied
+ * with plain JDBC batch UPDATEs, one transaction per batch, so no Product
+ * entity is ever loaded. Within a batch rows are sorted by key, matching the
+ * ascending lock order used by checkout. Each committed batch publishes a
+ * {@link ProductChangedEvent} so the in-memory filter index sees new prices
+ * and stock.
+ *
+ * Columns: Product ID, SKU, Price, Discount Price, Stock Quantity.
+ */
+@Service
+@RequiredArgsConstructor
+public class PriceStockUpdateService {
+
+    private static final int COLUMN_COUNT = 5;
+    private static final String[] JSON_FIELDS = {"id", "sku", "price", "discountPrice", "stockQuantity"};
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    // The content hash is cleared so the next full import rewrites the product
+    private static final String UPDATE_SET =
+            "UPDATE products SET price = COALESCE(?, price), discount_price = COALESCE(?, discount_price), " +
+                    "stock_quantity = COALESCE(?, stock_quantity), content_hash = NULL, updated_at = CURRENT_TIMESTAMP ";
+
+    private static final String UPDATE_BY_ID_SQL = UPDATE_SET + "WHERE id = ?";
+
+    private static final String UPDATE_BY_SKU_SQL = UPDATE_SET + "WHERE sku = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.bulk-upload.price-stock-batch-size:1000}")
+    private int batchSize;
+
+    public Map<String, Object> updatePricesAndStock(File file, ImportFormat format) throws IOException {
+        UpdateResult result = new UpdateResult();
+        List<PriceStockRow> batch = new ArrayList<>(batchSize);
+
+        if (format == ImportFormat.XLSX) {
+            XlsxRowReader.read(file, COLUMN_COUNT, values -> addRow(values, batch, result));
+        } else {
+            try (TextRowReader reader = new TextRowReader(file, format, JSON_FIELDS)) {
+                List<String> records;
+                while (!(records = reader.readBlock(batchSize)).isEmpty()) {
+                    for (String record : records) {
+                        try {
+                            addRow(reader.parse(record, COLUMN_COUNT), batch, result);
+                        } catch (IllegalArgumentException e) {
+                            result.rowFailed(++result.totalRows, e.getMessage());
+                        }
+                    }
+                }
+            }
+        }
+        applyBatch(batch, result);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("totalRows", result.totalRows);
+        response.put("successCount", result.updated);
+        response.put("errorCount", result.failed);
+        response.put("errors", result.errors);
+        response.put("success", true);
+        return response;
+    }
+
+    private void addRow(String[] values, List<PriceStockRow> batch, UpdateResult result) {
+        int rowNumber = ++result.totalRows;
+
+        try {
+            batch.add(parseRow(values, rowNumber));
+        } catch (Exception e) {
+            result.rowFailed(rowNumber, e.getMessage());
+        }
+
+        if (batch.size() >= batchSize) {
+            applyBatch(batch, result);
+        }
+    }
+
+    private PriceStockRow parseRow(String[] values, int rowNumber) {
+        PriceStockRow row = new PriceStockRow();
+        row.rowNumber = rowNumber;
+        row.sku = values[1];
+        try {
+            row.id = values[0] != null ? new BigDecimal(values[0]).longValueExact() : null;
+            row.price = values[2] != null ? new BigDecimal(values[2]) : null;
+            row.discountPrice = values[3] != null ? new BigDecimal(values[3]) : null;
+            row.stockQuantity = values[4] != null ? new BigDecimal(values[4]).intValueExact() : null;
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new RuntimeException("Product ID, prices and stock quantity must be numbers");
+        }
+
+        if (row.id == null && row.sku == null) {
+            throw new RuntimeException("Product ID or SKU is required");
+        }
+        if (row.price == null && row.discountPrice == null && row.stockQuantity == null) {
+            throw new RuntimeException("Nothing to update");
+        }
+        if (row.price != null && row.price.signum() <= 0) {
+            throw new RuntimeException("Price must be positive");
+        }
+        if (row.discountPrice != null && row.discountPrice.signum() < 0) {
+            throw new RuntimeException("Discount price cannot be negative");
+        }
+        if (row.stockQuantity != null && row.stockQuantity < 0) {
+            throw new RuntimeException("Stock quantity cannot be negative");
+        }
+
+        return row;
+    }
+
+    // One transaction per batch; rows keyed by id use the primary key, the rest the unique SKU index
+    private void applyBatch(List<PriceStockRow> batch, UpdateResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<PriceStockRow> byId = new ArrayList<>();
+        List<PriceStockRow> bySku = new ArrayList<>();
+        for (PriceStockRow row : batch) {
+            (row.id != null ? byId : bySku).add(row);
+        }
+        byId.sort(Comparator.comparing(row -> row.id));
+        bySku.sort(Comparator.comparing(row -> row.sku));
+
+        try {
+            int[][] updateCounts = transactionTemplate.execute(status -> {
+                int[][] counts = {
+                        execute(UPDATE_BY_ID_SQL, byId, row -> row.id),
+                        execute(UPDATE_BY_SKU_SQL, bySku, row -> row.sku)
+                };
+                publishChanges(byId, bySku);
+                return counts;
+            });
+            recordCounts(byId, updateCounts[0], result);
+            recordCounts(bySku, updateCounts[1], result);
+        } catch (Exception e) {
+            for (PriceStockRow row : batch) {
+                result.rowFailed(row.rowNumber, e.getMessage());
+            }
+        }
+
+        batch.clear();
+    }
+
+    private int[] execute(String sql, List<PriceStockRow> rows, Function<PriceStockRow, Object> key) {
+        if (rows.isEmpty()) {
+            return new int[0];
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>(rows.size());
+        for (PriceStockRow row : rows) {
+            batchArgs.add(new Object[]{row.price, row.discountPrice, row.stockQuantity, key.apply(row)});
+        }
+        return jdbcTemplate.batchUpdate(sql, batchArgs);
+    }
+
+    // Listeners run after the batch commits; SKU rows are resolved to ids first
+    private void publishChanges(List<PriceStockRow> byId, List<PriceStockRow> bySku) {
+        List<Long> productIds = new ArrayList<>(byId.size() + bySku.size());
+        byId.forEach(row -> productIds.add(row.id));
+        if (!bySku.isEmpty()) {
+            productIds.addAll(productRepository.findIdsBySkuIn(bySku.stream().map(row -> row.sku).collect(Collectors.toList())));
+        }
+        eventPublisher.publishEvent(ProductChangedEvent.stockChanged(productIds));
+    }
+
+    private void recordCounts(List<PriceStockRow> rows, int[] updateCounts, UpdateResult result) {
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == 0) {
+                PriceStockRow row = rows.get(i);
+                result.rowFailed(row.rowNumber, "Product not found: " + (row.id != null ? row.id : row.sku));
+            } else {
+                result.updated++;
+            }
+        }
+    }
+
+    private static class PriceStockRow {
+        private int rowNumber;
+        private Long id;
+        private String sku;
+        private BigDecimal price;
+        private BigDecimal discountPrice;
+        private Integer stockQuantity;
+    }
+
+    private static class UpdateResult {
+        private int totalRows;
+        private int updated;
+        private int failed;
+        private final List<String> errors = new ArrayList<>();
+
+        void rowFailed(int rowNumber, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Row " + rowNumber + ": " + message);
+            }
+        }
+    }
+}
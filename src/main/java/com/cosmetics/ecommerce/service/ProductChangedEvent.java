@@ -0,0 +1,35 @@
+package com.cosmetics.ecommerce.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published whenever products are created, edited, deactivated or written by a
+ * bulk import, and when their price, stock or sales change. Carries ids only;
+ * listeners reload the products after the transaction commits, so one event
+ * can cover a whole import chunk or order.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductChangedEvent {
+
+    private final Collection<Long> productIds;
+
+    // False when only price, stock or sales changed, so text indexes can skip the event
+    private final boolean textChanged;
+
+    public ProductChangedEvent(Collection<Long> productIds) {
+        this(productIds, true);
+    }
+
+    public static ProductChangedEvent of(Long productId) {
+        return new ProductChangedEvent(List.of(productId));
+    }
+
+    public static ProductChangedEvent stockChanged(Collection<Long> productIds) {
+        return new ProductChangedEvent(productIds, false);
+    }
+}
@@ -0,0 +1,422 @@
+package com.cosmetics.ecommerce.service;
+
+import com.cosmetics.ecommerce.dto.FacetCountDTO;
+import com.cosmetics.ecommerce.dto.PriceRangeCountDTO;
+import com.cosmetics.ecommerce.dto.ProductFacetsDTO;
+import com.cosmetics.ecommerce.dto.ProductSearchRequest;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Faceted filtering of the active catalog over compressed bitmaps.
+ *
+ * Each product is one bit, at its id, in the bitmaps of its category, its
+ * brand and its price bucket, and in the in-stock and featured bitmaps when
+ * those apply. A search ANDs the bitmaps of whichever filters are set, so any
+ * combination of filters costs the same few word-wise intersections. Facet
+ * counts are AND-cardinalities against the same bitmaps; each facet is counted
+ * with every filter except its own, so picking one brand still shows how many
+ * products each other brand would add. Ingredient "contains" and "free-from"
+ * filters come from an {@link IngredientIndex} over the same bits; they narrow
+ * every facet but have no counts of their own.
+ *
+ * Prices are effective prices (the discount price when lower). Result pages
+ * are sorted from per-product values kept next to the bitmaps.
+ *
+ * Not thread-safe; ProductFacetService guards it with a read/write lock.
+ */
+public class ProductFacetIndex {
+
+    // Upper bounds of the price buckets in rupees; the last bucket is open-ended
+    public static final int[] PRICE_BUCKET_BOUNDS = {250, 500, 1000, 2000, 5000};
+
+    // Sort value that keeps keyword hits in their ranked order
+    public static final String RELEVANCE = "relevance";
+
+    // Every sortBy value query() understands
+    public static final Set<String> SORT_FIELDS = Set.of("createdAt", "price", "name", "soldCount", "id", RELEVANCE);
+
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+
+    // Positions in the filter array passed around by query()
+    private static final int CATEGORY = 0;
+    private static final int BRAND = 1;
+    private static final int PRICE = 2;
+    private static final int IN_STOCK = 3;
+    private static final int FEATURED = 4;
+    private static final int INGREDIENTS = 5;
+
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<Long, RoaringBitmap> byCategory = new HashMap<>();
+    private final Map<Long, RoaringBitmap> byBrand = new HashMap<>();
+    private final RoaringBitmap[] byPriceBucket = new RoaringBitmap[PRICE_BUCKET_BOUNDS.length + 1];
+    private final RoaringBitmap inStock = new RoaringBitmap();
+    private final RoaringBitmap featured = new RoaringBitmap();
+    private final IngredientIndex ingredients = new IngredientIndex();
+
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final Map<Long, String> categoryNames = new HashMap<>();
+    private final Map<Long, String> brandNames = new HashMap<>();
+
+    public ProductFacetIndex() {
+        for (int i = 0; i < byPriceBucket.length; i++) {
+            byPriceBucket[i] = new RoaringBitmap();
+        }
+    }
+
+    // Adds the product, replacing any previous entry with the same id
+    public void put(Entry entry) {
+        remove(entry.id);
+
+        int bit = bit(entry.id);
+        entries.put(bit, entry);
+        all.add(bit);
+        if (entry.categoryId != null) {
+            byCategory.computeIfAbsent(entry.categoryId, id -> new RoaringBitmap()).add(bit);
+            categoryNames.put(entry.categoryId, entry.categoryName);
+        }
+        if (entry.brandId != null) {
+            byBrand.computeIfAbsent(entry.brandId, id -> new RoaringBitmap()).add(bit);
+            brandNames.put(entry.brandId, entry.brandName);
+        }
+        byPriceBucket[priceBucket(entry.pricePaise)].add(bit);
+        if (entry.inStock) {
+            inStock.add(bit);
+        }
+        if (entry.featured) {
+            featured.add(bit);
+        }
+        ingredients.add(bit, entry.ingredients);
+    }
+
+    public void remove(long productId) {
+        int bit = bit(productId);
+        Entry entry = entries.remove(bit);
+        if (entry == null) {
+            return;
+        }
+
+        all.remove(bit);
+        removeFromGroup(byCategory, entry.categoryId, bit);
+        removeFromGroup(byBrand, entry.brandId, bit);
+        byPriceBucket[priceBucket(entry.pricePaise)].remove(bit);
+        inStock.remove(bit);
+        featured.remove(bit);
+        ingredients.remove(bit, entry.ingredients);
+    }
+
+    // Keyword hits are ranked by relevance unless the request names another sort
+    public static boolean sortsByRelevance(String sortBy) {
+        return sortBy == null || RELEVANCE.equals(sortBy);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Products matching every filter of the request, one page of them, and optionally the facet counts.
+     * @param rankedIds keyword hits best first, or null to search the whole catalog; the page keeps
+     *                  this order unless the request asks for another sort
+     */
+    public Result query(ProductSearchRequest request, List<Long> rankedIds, int offset, int limit, boolean countFacets) {
+        RoaringBitmap base = all;
+        if (rankedIds != null) {
+            RoaringBitmap hits = new RoaringBitmap();
+            rankedIds.forEach(id -> hits.add(bit(id)));
+            base = RoaringBitmap.and(all, hits);
+        }
+
+        RoaringBitmap[] filters = new RoaringBitmap[6];
+        if (request.getCategoryId() != null) {
+            filters[CATEGORY] = byCategory.getOrDefault(request.getCategoryId(), EMPTY);
+        }
+        if (request.getBrandId() != null) {
+            filters[BRAND] = byBrand.getOrDefault(request.getBrandId(), EMPTY);
+        }
+        if (request.getMinPrice() != null || request.getMaxPrice() != null) {
+            filters[PRICE] = priceRange(request.getMinPrice(), request.getMaxPrice());
+        }
+        if (Boolean.TRUE.equals(request.getInStock())) {
+            filters[IN_STOCK] = inStock;
+        }
+        if (Boolean.TRUE.equals(request.getFeatured())) {
+            filters[FEATURED] = featured;
+        }
+        if (hasTerms(request.getIncludeIngredients()) || hasTerms(request.getExcludeIngredients())) {
+            filters[INGREDIENTS] = ingredientFilter(request.getIncludeIngredients(), request.getExcludeIngredients());
+        }
+
+        RoaringBitmap matches = intersect(base, filters, -1);
+
+        List<Long> productIds;
+        if (rankedIds != null && sortsByRelevance(request.getSortBy())) {
+            productIds = new ArrayList<>(limit);
+            int skipped = 0;
+            for (Long id : rankedIds) {
+                if (productIds.size() == limit) {
+                    break;
+                }
+                if (matches.contains(bit(id)) && skipped++ >= offset) {
+                    productIds.add(id);
+                }
+            }
+        } else {
+            productIds = sortedPage(matches, request.getSortBy(), "asc".equalsIgnoreCase(request.getSortOrder()),
+                    offset, limit);
+        }
+
+        ProductFacetsDTO facets = null;
+        if (countFacets) {
+            facets = new ProductFacetsDTO(
+                    countGroups(byCategory, categoryNames, intersect(base, filters, CATEGORY)),
+                    countGroups(byBrand, brandNames, intersect(base, filters, BRAND)),
+                    countPriceRanges(intersect(base, filters, PRICE)),
+                    RoaringBitmap.andCardinality(inStock, intersect(base, filters, IN_STOCK)),
+                    RoaringBitmap.andCardinality(featured, intersect(base, filters, FEATURED)));
+        }
+
+        return new Result(productIds, matches.getLongCardinality(), facets);
+    }
+
+    // Base AND every set filter except the one at position skip; never modifies the index's own bitmaps
+    private RoaringBitmap intersect(RoaringBitmap base, RoaringBitmap[] filters, int skip) {
+        RoaringBitmap result = base;
+        for (int i = 0; i < filters.length; i++) {
+            if (i != skip && filters[i] != null) {
+                result = RoaringBitmap.and(result, filters[i]);
+            }
+        }
+        return result;
+    }
+
+    // Products containing every included ingredient and none of the excluded ones
+    private RoaringBitmap ingredientFilter(List<String> include, List<String> exclude) {
+        RoaringBitmap result = all;
+        if (include != null) {
+            for (String term : include) {
+                if (term != null && !term.isBlank()) {
+                    result = RoaringBitmap.and(result, ingredients.matching(term));
+                }
+            }
+        }
+        if (exclude != null) {
+            for (String term : exclude) {
+                if (term != null && !term.isBlank()) {
+                    result = RoaringBitmap.andNot(result, ingredients.matching(term));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean hasTerms(List<String> terms) {
+        return terms != null && terms.stream().anyMatch(term -> term != null && !term.isBlank());
+    }
+
+    // Whole buckets inside the range are taken as they are; only the edge buckets look at prices
+    private RoaringBitmap priceRange(Double minPrice, Double maxPrice) {
+        long min = minPrice != null ? Math.round(minPrice * 100) : Long.MIN_VALUE;
+        long max = maxPrice != null ? Math.round(maxPrice * 100) : Long.MAX_VALUE;
+
+        RoaringBitmap result = new RoaringBitmap();
+        for (int bucket = 0; bucket < byPriceBucket.length; bucket++) {
+            long low = bucket == 0 ? Long.MIN_VALUE : PRICE_BUCKET_BOUNDS[bucket - 1] * 100L;
+            long high = bucket == PRICE_BUCKET_BOUNDS.length ? Long.MAX_VALUE : PRICE_BUCKET_BOUNDS[bucket] * 100L - 1;
+            if (high < min || low > max) {
+                continue;
+            }
+            if (low >= min && high <= max) {
+                result.or(byPriceBucket[bucket]);
+            } else {
+                byPriceBucket[bucket].forEach((int bit) -> {
+                    long price = entries.get(bit).pricePaise;
+                    if (price >= min && price <= max) {
+                        result.add(bit);
+                    }
+                });
+            }
+        }
+        return result;
+    }
+
+    // Best offset + limit entries by the sort key, then the requested slice
+    private List<Long> sortedPage(RoaringBitmap matches, String sortBy, boolean ascending, int offset, int limit) {
+        Comparator<Entry> order = comparator(sortBy).thenComparingLong(entry -> entry.id);
+        if (!ascending) {
+            order = order.reversed();
+        }
+
+        int wanted = offset + limit;
+        List<Entry> best;
+        if (wanted >= matches.getCardinality()) {
+            best = new ArrayList<>(matches.getCardinality());
+            matches.forEach((int bit) -> best.add(entries.get(bit)));
+            best.sort(order);
+        } else {
+            // Keeps the wanted best; the head is the worst of them
+            PriorityQueue<Entry> heap = new PriorityQueue<>(wanted + 1, order.reversed());
+            Comparator<Entry> sortOrder = order;
+            matches.forEach((int bit) -> {
+                Entry entry = entries.get(bit);
+                if (heap.size() < wanted) {
+                    heap.add(entry);
+                } else if (sortOrder.compare(entry, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(entry);
+                }
+            });
+            best = new ArrayList<>(heap);
+            best.sort(order);
+        }
+
+        List<Long> productIds = new ArrayList<>(limit);
+        for (int i = offset; i < best.size() && productIds.size() < limit; i++) {
+            productIds.add(best.get(i).id);
+        }
+        return productIds;
+    }
+
+    // Without a keyword there is no relevance, so it means newest first like no sort at all
+    private Comparator<Entry> comparator(String sortBy) {
+        if (sortBy == null) {
+            return Comparator.comparingLong(entry -> entry.createdAt);
+        }
+        return switch (sortBy) {
+            case "createdAt", RELEVANCE -> Comparator.comparingLong(entry -> entry.createdAt);
+            case "price" -> Comparator.comparingLong(entry -> entry.pricePaise);
+            case "name" -> Comparator.comparing(entry -> entry.name, String.CASE_INSENSITIVE_ORDER);
+            case "soldCount" -> Comparator.comparingInt(entry -> entry.soldCount);
+            case "id" -> Comparator.comparingLong(entry -> entry.id);
+            default -> throw unsupportedSort(sortBy);
+        };
+    }
+
+    public static RuntimeException unsupportedSort(String sortBy) {
+        return new RuntimeException("Cannot sort products by '" + sortBy + "'; use one of " + new TreeSet<>(SORT_FIELDS));
+    }
+
+    // Groups with at least one product in scope, largest first
+    private List<FacetCountDTO> countGroups(Map<Long, RoaringBitmap> groups, Map<Long, String> names, RoaringBitmap scope) {
+        List<FacetCountDTO> counts = new ArrayList<>();
+        groups.forEach((id, bitmap) -> {
+            long count = RoaringBitmap.andCardinality(bitmap, scope);
+            if (count > 0) {
+                counts.add(new FacetCountDTO(id, names.get(id), count));
+            }
+        });
+        counts.sort(Comparator.comparingLong(FacetCountDTO::getCount).reversed()
+                .thenComparing(FacetCountDTO::getId));
+        return counts;
+    }
+
+    private List<PriceRangeCountDTO> countPriceRanges(RoaringBitmap scope) {
+        List<PriceRangeCountDTO> counts = new ArrayList<>(byPriceBucket.length);
+        for (int bucket = 0; bucket < byPriceBucket.length; bucket++) {
+            counts.add(new PriceRangeCountDTO(
+                    bucket == 0 ? 0.0 : PRICE_BUCKET_BOUNDS[bucket - 1],
+                    bucket == PRICE_BUCKET_BOUNDS.length ? null : (double) PRICE_BUCKET_BOUNDS[bucket],
+                    RoaringBitmap.andCardinality(byPriceBucket[bucket], scope)));
+        }
+        return counts;
+    }
+
+    private void removeFromGroup(Map<Long, RoaringBitmap> groups, Long groupId, int bit) {
+        if (groupId == null) {
+            return;
+        }
+        RoaringBitmap bitmap = groups.get(groupId);
+        bitmap.remove(bit);
+        if (bitmap.isEmpty()) {
+            groups.remove(groupId);
+        }
+    }
+
+    private static int priceBucket(long pricePaise) {
+        int bucket = 0;
+        while (bucket < PRICE_BUCKET_BOUNDS.length && pricePaise >= PRICE_BUCKET_BOUNDS[bucket] * 100L) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    // Bitmaps are 32-bit; product ids come from a sequence and stay far below that
+    private static int bit(long productId) {
+        return Math.toIntExact(productId);
+    }
+
+    /**
+     * What the index keeps for one product.
+     */
+    public static final class Entry {
+
+        private final long id;
+        private final String name;
+        private final Long categoryId;
+        private final String categoryName;
+        private final Long brandId;
+        private final String brandName;
+        private final long pricePaise;
+        private final boolean inStock;
+        private final boolean featured;
+        private final int soldCount;
+        private final long createdAt;
+        private final Set<String> ingredients;
+
+        public Entry(long id, String name, Long categoryId, String categoryName, Long brandId, String brandName,
+                     BigDecimal effectivePrice, boolean inStock, boolean featured, int soldCount,
+                     LocalDateTime createdAt, String ingredients) {
+            this.id = id;
+            this.name = name != null ? name : "";
+            this.categoryId = categoryId;
+            this.categoryName = categoryName;
+            this.brandId = brandId;
+            this.brandName = brandName;
+            this.pricePaise = effectivePrice.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+            this.inStock = inStock;
+            this.featured = featured;
+            this.soldCount = soldCount;
+            this.createdAt = createdAt != null ? createdAt.toInstant(ZoneOffset.UTC).toEpochMilli() : 0;
+            this.ingredients = IngredientIndex.parse(ingredients);
+        }
+    }
+
+    // One page of matching ids, the number of matches and the facet counts (null unless asked for)
+    public static class Result {
+
+        private final List<Long> productIds;
+        private final long totalMatches;
+        private final ProductFacetsDTO facets;
+
+        public Result(List<Long> productIds, long totalMatches, ProductFacetsDTO facets) {
+            this.productIds = Collections.unmodifiableList(productIds);
+            this.totalMatches = totalMatches;
+            this.facets = facets;
+        }
+
+        public List<Long> getProductIds() {
+            return productIds;
+        }
+
+        public long getTotalMatches() {
+            return totalMatches;
+        }
+
+        public ProductFacetsDTO getFacets() {
+            return facets;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.cosmetics.ecommerce.service;
+
+import com.cosmetics.ecommerce.dto.ProductSearchRequest;
+import com.cosmetics.ecommerce.entity.Product;
+import com.cosmetics.ecommerce.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Answers filtered product searches and their sidebar facet counts from a
+ * {@link ProductFacetIndex} in memory.
+ *
+ * The index is loaded when the application is ready and kept current from
+ * {@link ProductChangedEvent}s, which also cover price and stock changes from
+ * orders and bulk price/stock updates. Changes are applied in the background
+ * through a {@link ProductViewUpdater}. A reload builds a new index aside and
+ * swaps it in; products changed meanwhile are re-applied afterwards. Until
+ * the first load finishes, {@link #search} returns null and callers fall back
+ * to the database.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductFacetService {
+
+    private static final String LOAD_SQL =
+            "SELECT p.id, p.name, p.price, p.discount_price, p.stock_quantity, p.is_featured, p.sold_count, " +
+                    "p.created_at, p.ingredients, c.id AS category_id, c.name AS category_name, " +
+                    "b.id AS brand_id, b.name AS brand_name " +
+                    "FROM products p " +
+                    "LEFT JOIN categories c ON c.id = p.category_id " +
+                    "LEFT JOIN brands b ON b.id = p.brand_id " +
+                    "WHERE p.is_active = true";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductRepository productRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private ProductFacetIndex index = new ProductFacetIndex();
+
+    private final ProductViewUpdater updater = new ProductViewUpdater(this::apply);
+    private volatile boolean ready;
+
+    /**
+     * One page of matching product ids with the total and, when asked for, the facet counts.
+     * Returns null while the index is loading.
+     * @param rankedIds keyword hits best first, or null to filter the whole catalog; kept in this
+     *                  order unless the request asks for another sort
+     */
+    public ProductFacetIndex.Result search(ProductSearchRequest request, List<Long> rankedIds,
+                                           int offset, int limit, boolean countFacets) {
+        if (!ready) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            return index.query(request, rankedIds, offset, limit, countFacets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    // Category and brand names are shown with the facet counts
+    @Async
+    @TransactionalEventListener
+    public void onCategoryOrBrandChanged(CategoryOrBrandChangedEvent event) {
+        reload();
+    }
+
+    /**
+     * Rebuild the index from the database.
+     * @return number of products indexed
+     */
+    public int reload() {
+        return updater.reload(() -> {
+            ProductFacetIndex fresh = new ProductFacetIndex();
+            jdbcTemplate.query(LOAD_SQL, (RowCallbackHandler) rs -> {
+                BigDecimal price = rs.getBigDecimal("price");
+                BigDecimal discountPrice = rs.getBigDecimal("discount_price");
+                Timestamp createdAt = rs.getTimestamp("created_at");
+                fresh.put(new ProductFacetIndex.Entry(
+                        rs.getLong("id"), rs.getString("name"),
+                        rs.getObject("category_id", Long.class), rs.getString("category_name"),
+                        rs.getObject("brand_id", Long.class), rs.getString("brand_name"),
+                        discountPrice != null && discountPrice.compareTo(price) < 0 ? discountPrice : price,
+                        rs.getInt("stock_quantity") > 0, rs.getBoolean("is_featured"), rs.getInt("sold_count"),
+                        createdAt != null ? createdAt.toLocalDateTime() : null, rs.getString("ingredients")));
+            });
+
+            lock.writeLock().lock();
+            try {
+                index = fresh;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = true;
+            return fresh.size();
+        });
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void onProductsChanged(ProductChangedEvent event) {
+        updater.productsChanged(event.getProductIds());
+    }
+
+    private void apply(Collection<Long> productIds) {
+        List<Product> products = productRepository.findWithCategoryAndBrandByIdIn(productIds);
+        Set<Long> missing = new HashSet<>(productIds);
+
+        lock.writeLock().lock();
+        try {
+            for (Product product : products) {
+                missing.remove(product.getId());
+                if (Boolean.TRUE.equals(product.getIsActive())) {
+                    index.put(toEntry(product));
+                } else {
+                    index.remove(product.getId());
+                }
+            }
+            missing.forEach(index::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private ProductFacetIndex.Entry toEntry(Product product) {
+        return new ProductFacetIndex.Entry(
+                product.getId(), product.getName(),
+                product.getCategory() != null ? product.getCategory().getId() : null,
+                product.getCategory() != null ? product.getCategory().getName() : null,
+                product.getBrand() != null ? product.getBrand().getId() : null,
+                product.getBrand() != null ? product.getBrand().getName() : null,
+                product.getEffectivePrice(), product.isInStock(), Boolean.TRUE.equals(product.getIsFeatured()),
+                product.getSoldCount() != null ? product.getSoldCount() : 0, product.getCreatedAt(),
+                product.getIngredients());
+    }
+}
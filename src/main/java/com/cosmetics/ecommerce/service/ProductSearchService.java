@@ -0,0 +1,175 @@
+package com.cosmetics.ecommerce.service;
+
+import com.cosmetics.ecommerce.entity.Product;
+import com.cosmetics.ecommerce.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps the on-disk {@link ProductTextIndex} in step with the products table.
+ *
+ * The index lives in {@code app.search.index-dir} and survives restarts; on
+ * startup it is rebuilt when its document count no longer matches the number
+ * of active products. Afterwards every {@link ProductChangedEvent} that touches
+ * searchable text re-indexes the affected products in the background once
+ * their transaction has committed; changes arriving while a batch is being
+ * indexed are coalesced into one more batch and one commit. A
+ * {@link CategoryOrBrandChangedEvent} re-indexes every product of that
+ * category or brand, whose name is indexed with them. Until the index
+ * is ready, {@link #search} returns null and callers fall back to the database.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductSearchService {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+
+    @Value("${app.search.index-dir:./data/search-index}")
+    private String indexDir;
+
+    private ProductTextIndex index;
+
+    private final ProductViewUpdater updater = new ProductViewUpdater(this::apply);
+
+    private volatile boolean ready;
+
+    @PostConstruct
+    public void openIndex() throws IOException {
+        Path path = Path.of(indexDir);
+        Files.createDirectories(path);
+        index = new ProductTextIndex(FSDirectory.open(path));
+    }
+
+    @PreDestroy
+    public void closeIndex() throws IOException {
+        index.close();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyIndex() throws IOException {
+        if (index.documentCount() != productRepository.countByIsActiveTrue()) {
+            rebuild();
+        }
+        ready = true;
+    }
+
+    /**
+     * Re-index every active product from the database.
+     * @return number of products indexed
+     */
+    public int rebuild() {
+        return updater.reload(() -> {
+            try {
+                index.clear();
+
+                int indexed = 0;
+                long lastId = 0;
+                List<Product> batch;
+                while (!(batch = productRepository.findActiveAfterId(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE))).isEmpty()) {
+                    index.index(batch);
+                    indexed += batch.size();
+                    lastId = batch.get(batch.size() - 1).getId();
+                }
+
+                index.commit();
+                return indexed;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to rebuild search index", e);
+            }
+        });
+    }
+
+    // Stock-only changes from orders are skipped before they reach the updater
+    @Async
+    @TransactionalEventListener
+    public void onProductsChanged(ProductChangedEvent event) {
+        if (event.isTextChanged()) {
+            updater.productsChanged(event.getProductIds());
+        }
+    }
+
+    // Brand and category names are indexed with each product, so an edit re-indexes all of their products
+    @Async
+    @TransactionalEventListener
+    public void onCategoryOrBrandChanged(CategoryOrBrandChangedEvent event) {
+        List<Long> productIds = "brand".equals(event.getType())
+                ? productRepository.findIdsByBrandId(event.getId())
+                : productRepository.findIdsByCategoryId(event.getId());
+
+        for (int from = 0; from < productIds.size(); from += REBUILD_BATCH_SIZE) {
+            updater.productsChanged(productIds.subList(from, Math.min(from + REBUILD_BATCH_SIZE, productIds.size())));
+        }
+    }
+
+    // One commit for every product changed since the last batch
+    private void apply(Collection<Long> productIds) {
+        try {
+            List<Product> products = productRepository.findWithCategoryAndBrandByIdIn(productIds);
+            index.index(products);
+
+            // Ids that no longer exist at all
+            Set<Long> removed = new HashSet<>(productIds);
+            products.forEach(product -> removed.remove(product.getId()));
+            index.remove(removed);
+
+            index.commit();
+        } catch (IOException e) {
+            // The index is behind until the next rebuild; the database change itself stands
+            System.err.println("Failed to update search index for products " + productIds + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * One page of product ids ranked by relevance, or null while the index is not ready.
+     */
+    public ProductTextIndex.SearchHits search(String keyword, int offset, int limit) {
+        if (!ready) {
+            return null;
+        }
+
+        try {
+            return index.search(keyword, offset, limit);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search failed", e);
+        }
+    }
+
+    /**
+     * Every matching product id ranked by relevance, or null while the index is not ready.
+     */
+    public List<Long> searchAll(String keyword) {
+        if (!ready) {
+            return null;
+        }
+
+        try {
+            return index.searchAll(keyword);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search failed", e);
+        }
+    }
+}
@@ -4,19 +4,28 @@ import com.cosmetics.ecommerce.dto.*;
 import com.cosmetics.ecommerce.entity.Brand;
 import com.cosmetics.ecommerce.entity.Category;
 import com.cosmetics.ecommerce.entity.Product;
+import com.cosmetics.ecommerce.mapper.ProductMapper;
 import com.cosmetics.ecommerce.repository.BrandRepository;
 import com.cosmetics.ecommerce.repository.CategoryRepository;
 import com.cosmetics.ecommerce.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,74 +33,104 @@ import java.util.stream.Collectors;
 @Transactional
 public class ProductService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    // Seek start for the first page: later than any stored timestamp
+    private static final LocalDateTime FIRST_PAGE_CREATED_AT = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final BrandRepository brandRepository;
-    private final ModelMapper modelMapper;
+    private final ProductMapper productMapper;
     private final EmailService emailService;
+    private final ProductSearchService productSearchService;
+    private final ProductFacetService productFacetService;
+    private final ProductViewCounter productViewCounter;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Get all products with pagination
     public Page<ProductDTO> getAllProducts(Pageable pageable) {
+        CatalogSnapshotService.Snapshot catalog = catalogSnapshotService.current();
+        if (catalog != null && pageable.getSort().isUnsorted()) {
+            return pageOf(catalog.getProducts(), pageable);
+        }
+
         return productRepository.findByIsActiveTrue(pageable)
                 .map(this::convertToDTO);
     }
 
-    // Search products with filters
+    // Keyset pages of all active products, newest first, without a total count
+    public CursorPageDTO<ProductDTO> getAllProductsAfter(String cursor, int size) {
+        return seekPage(cursor, size, productRepository::findActiveBefore);
+    }
+
+    // Keyset pages of a category, newest first
+    public CursorPageDTO<ProductDTO> getProductsByCategoryAfter(Long categoryId, String cursor, int size) {
+        return seekPage(cursor, size, (createdAt, id, limit) ->
+                productRepository.findActiveByCategoryBefore(categoryId, createdAt, id, limit));
+    }
+
+    // Keyset pages of a brand, newest first
+    public CursorPageDTO<ProductDTO> getProductsByBrandAfter(Long brandId, String cursor, int size) {
+        return seekPage(cursor, size, (createdAt, id, limit) ->
+                productRepository.findActiveByBrandBefore(brandId, createdAt, id, limit));
+    }
+
+    // Search products with any combination of filters
     public Page<ProductDTO> searchProducts(ProductSearchRequest request) {
         Pageable pageable = createPageable(request);
 
-        // Search by keyword
-        if (request.getKeyword() != null && !request.getKeyword().trim().isEmpty()) {
-            return productRepository.searchByName(request.getKeyword(), pageable)
-                    .map(this::convertToDTO);
+        // Keyword alone, ranked by relevance: one page straight from the text index
+        if (hasKeyword(request) && !hasFilters(request) && ProductFacetIndex.sortsByRelevance(request.getSortBy())) {
+            ProductTextIndex.SearchHits hits = productSearchService.search(
+                    request.getKeyword(), (int) pageable.getOffset(), pageable.getPageSize());
+            if (hits != null) {
+                return new PageImpl<>(loadInOrder(hits.getProductIds()), pageable, hits.getTotalHits());
+            }
         }
 
-        // Filter by category and brand
-        if (request.getCategoryId() != null && request.getBrandId() != null) {
-            return productRepository.findByCategoryIdAndBrandIdAndIsActiveTrue(
-                            request.getCategoryId(), request.getBrandId(), pageable)
-                    .map(this::convertToDTO);
-        }
-
-        // Filter by category only
-        if (request.getCategoryId() != null) {
-            return productRepository.findByCategoryIdAndIsActiveTrue(
-                            request.getCategoryId(), pageable)
-                    .map(this::convertToDTO);
+        ProductFacetIndex.Result result = facetSearch(request, pageable, false);
+        if (result == null) {
+            // Indexes still loading
+            return searchInDatabase(request, pageable);
         }
+        return new PageImpl<>(loadInOrder(result.getProductIds()), pageable, result.getTotalMatches());
+    }
 
-        // Filter by brand only
-        if (request.getBrandId() != null) {
-            return productRepository.findByBrandIdAndIsActiveTrue(
-                            request.getBrandId(), pageable)
-                    .map(this::convertToDTO);
-        }
+    // Search products and count the facets for the filter sidebar in the same pass
+    public ProductSearchResultDTO searchProductsWithFacets(ProductSearchRequest request) {
+        Pageable pageable = createPageable(request);
 
-        // Filter by price range
-        if (request.getMinPrice() != null && request.getMaxPrice() != null) {
-            return productRepository.findByPriceRange(
-                            request.getMinPrice(), request.getMaxPrice(), pageable)
-                    .map(this::convertToDTO);
-        }
+        ProductFacetIndex.Result result = facetSearch(request, pageable, true);
+        Page<ProductDTO> page = result != null
+                ? new PageImpl<>(loadInOrder(result.getProductIds()), pageable, result.getTotalMatches())
+                : searchInDatabase(request, pageable);
 
-        // Default: return all active products
-        return getAllProducts(pageable);
+        return new ProductSearchResultDTO(page.getContent(), page.getNumber(), page.getSize(),
+                page.getTotalElements(), page.getTotalPages(), result != null ? result.getFacets() : null);
     }
 
-    // Get product by ID
+    // Get product by ID; the view is counted in memory and written later in a batch
+    @Transactional(readOnly = true)
     public ProductDTO getProductById(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
 
-        // Increment view count
-        product.setViewCount(product.getViewCount() + 1);
-        productRepository.save(product);
+        productViewCounter.recordView(id);
 
-        return convertToDTO(product);
+        ProductDTO dto = convertToDTO(product);
+        long storedViews = product.getViewCount() != null ? product.getViewCount() : 0;
+        dto.setViewCount((int) (storedViews + productViewCounter.pendingViews(id)));
+        return dto;
     }
 
     // Get featured products
     public List<ProductDTO> getFeaturedProducts() {
+        CatalogSnapshotService.Snapshot catalog = catalogSnapshotService.current();
+        if (catalog != null) {
+            return catalog.getFeatured();
+        }
+
         Pageable pageable = PageRequest.of(0, 8);
         return productRepository.findByIsFeaturedTrueAndIsActiveTrue(pageable)
                 .getContent()
@@ -102,6 +141,11 @@ public class ProductService {
 
     // Get top selling products
     public List<ProductDTO> getTopSellingProducts() {
+        CatalogSnapshotService.Snapshot catalog = catalogSnapshotService.current();
+        if (catalog != null) {
+            return catalog.getTopSelling();
+        }
+
         return productRepository.findTop10ByIsActiveTrueOrderBySoldCountDesc()
                 .stream()
                 .map(this::convertToDTO)
@@ -110,12 +154,22 @@ public class ProductService {
 
     // Get products by category
     public Page<ProductDTO> getProductsByCategory(Long categoryId, Pageable pageable) {
+        CatalogSnapshotService.Snapshot catalog = catalogSnapshotService.current();
+        if (catalog != null && pageable.getSort().isUnsorted()) {
+            return pageOf(catalog.getByCategory(categoryId), pageable);
+        }
+
         return productRepository.findByCategoryIdAndIsActiveTrue(categoryId, pageable)
                 .map(this::convertToDTO);
     }
 
     // Get products by brand
     public Page<ProductDTO> getProductsByBrand(Long brandId, Pageable pageable) {
+        CatalogSnapshotService.Snapshot catalog = catalogSnapshotService.current();
+        if (catalog != null && pageable.getSort().isUnsorted()) {
+            return pageOf(catalog.getByBrand(brandId), pageable);
+        }
+
         return productRepository.findByBrandIdAndIsActiveTrue(brandId, pageable)
                 .map(this::convertToDTO);
     }
@@ -130,6 +184,7 @@ public class ProductService {
 
         Product product = new Product();
         product.setName(request.getName());
+        product.setSku(request.getSku());
         product.setDescription(request.getDescription());
         product.setPrice(request.getPrice());
         product.setDiscountPrice(request.getDiscountPrice());
@@ -143,6 +198,7 @@ public class ProductService {
         product.setIsFeatured(request.getIsFeatured() != null ? request.getIsFeatured() : false);
 
         Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(savedProduct.getId()));
         return convertToDTO(savedProduct);
     }
 
@@ -158,6 +214,7 @@ public class ProductService {
                 .orElseThrow(() -> new RuntimeException("Brand not found"));
 
         product.setName(request.getName());
+        product.setSku(request.getSku());
         product.setDescription(request.getDescription());
         product.setPrice(request.getPrice());
         product.setDiscountPrice(request.getDiscountPrice());
@@ -168,12 +225,14 @@ public class ProductService {
         product.setSize(request.getSize());
         product.setWeight(request.getWeight());
         product.setIngredients(request.getIngredients());
+        product.setContentHash(null);
 
         if (request.getIsFeatured() != null) {
             product.setIsFeatured(request.getIsFeatured());
         }
 
         Product updatedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(id));
 
         if (product.getStockQuantity() < 10) {
             emailService.sendLowStockAlert(product.getName(), product.getStockQuantity());
@@ -189,6 +248,7 @@ public class ProductService {
 
         product.setIsActive(false);
         productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(id));
     }
 
     // Update stock quantity
@@ -197,7 +257,9 @@ public class ProductService {
                 .orElseThrow(() -> new RuntimeException("Product not found"));
 
         product.setStockQuantity(product.getStockQuantity() + quantity);
+        product.setContentHash(null);
         productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.stockChanged(List.of(productId)));
     }
 
     // Check if product is in stock
@@ -216,6 +278,144 @@ public class ProductService {
                 .collect(Collectors.toList());
     }
 
+    // Helper: filter in the database while the in-memory indexes load; one filter at a time
+    private Page<ProductDTO> searchInDatabase(ProductSearchRequest request, Pageable pageable) {
+        // Search by keyword
+        if (hasKeyword(request)) {
+            return productRepository.searchByName(request.getKeyword(), pageable)
+                    .map(this::convertToDTO);
+        }
+
+        // Filter by category and brand
+        if (request.getCategoryId() != null && request.getBrandId() != null) {
+            return productRepository.findByCategoryIdAndBrandIdAndIsActiveTrue(
+                            request.getCategoryId(), request.getBrandId(), pageable)
+                    .map(this::convertToDTO);
+        }
+
+        // Filter by category only
+        if (request.getCategoryId() != null) {
+            return productRepository.findByCategoryIdAndIsActiveTrue(
+                            request.getCategoryId(), pageable)
+                    .map(this::convertToDTO);
+        }
+
+        // Filter by brand only
+        if (request.getBrandId() != null) {
+            return productRepository.findByBrandIdAndIsActiveTrue(
+                            request.getBrandId(), pageable)
+                    .map(this::convertToDTO);
+        }
+
+        // Filter by price range
+        if (request.getMinPrice() != null && request.getMaxPrice() != null) {
+            return productRepository.findByPriceRange(
+                            request.getMinPrice(), request.getMaxPrice(), pageable)
+                    .map(this::convertToDTO);
+        }
+
+        // Default: return all active products
+        return getAllProducts(pageable);
+    }
+
+    // Helper: bitmap search over the facet index, within the keyword hits when there is a keyword
+    private ProductFacetIndex.Result facetSearch(ProductSearchRequest request, Pageable pageable, boolean countFacets) {
+        List<Long> keywordHits = null;
+        if (hasKeyword(request)) {
+            keywordHits = productSearchService.searchAll(request.getKeyword());
+            if (keywordHits == null) {
+                return null;
+            }
+        }
+
+        return productFacetService.search(request, keywordHits,
+                (int) pageable.getOffset(), pageable.getPageSize(), countFacets);
+    }
+
+    private boolean hasKeyword(ProductSearchRequest request) {
+        return request.getKeyword() != null && !request.getKeyword().trim().isEmpty();
+    }
+
+    private boolean hasFilters(ProductSearchRequest request) {
+        return request.getCategoryId() != null || request.getBrandId() != null
+                || request.getMinPrice() != null || request.getMaxPrice() != null
+                || Boolean.TRUE.equals(request.getInStock()) || Boolean.TRUE.equals(request.getFeatured())
+                || hasTerms(request.getIncludeIngredients()) || hasTerms(request.getExcludeIngredients());
+    }
+
+    private boolean hasTerms(List<String> terms) {
+        return terms != null && terms.stream().anyMatch(term -> term != null && !term.isBlank());
+    }
+
+    // Helper: DTOs for the given ids, in the order of the ids; from the catalog snapshot when it has them
+    private List<ProductDTO> loadInOrder(List<Long> productIds) {
+        Map<Long, ProductDTO> productsById = new HashMap<>();
+        CatalogSnapshotService.Snapshot catalog = catalogSnapshotService.current();
+        if (catalog != null) {
+            for (Long productId : productIds) {
+                ProductDTO product = catalog.get(productId);
+                if (product != null) {
+                    productsById.put(productId, product);
+                }
+            }
+        }
+
+        List<Long> missing = productIds.stream()
+                .filter(productId -> !productsById.containsKey(productId))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            productRepository.findWithCategoryAndBrandByIdIn(missing)
+                    .forEach(product -> productsById.put(product.getId(), convertToDTO(product)));
+        }
+
+        return productIds.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    // Helper: one page of an in-memory list
+    private Page<ProductDTO> pageOf(List<ProductDTO> products, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), products.size());
+        int to = Math.min(from + pageable.getPageSize(), products.size());
+        return new PageImpl<>(products.subList(from, to), pageable, products.size());
+    }
+
+    // Helper: one keyset page; a row beyond the page size tells whether there is a next page
+    private CursorPageDTO<ProductDTO> seekPage(String cursor, int size, SeekQuery query) {
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+
+        LocalDateTime createdAt = FIRST_PAGE_CREATED_AT;
+        Long id = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(",", 2);
+                createdAt = LocalDateTime.parse(parts[0]);
+                id = Long.parseLong(parts[1]);
+            } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
+
+        List<Product> products = query.find(createdAt, id, PageRequest.of(0, pageSize + 1));
+        boolean hasNext = products.size() > pageSize;
+        if (hasNext) {
+            products = products.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            Product last = products.get(products.size() - 1);
+            nextCursor = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((last.getCreatedAt() + "," + last.getId()).getBytes(StandardCharsets.UTF_8));
+        }
+
+        List<ProductDTO> content = products.stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        return new CursorPageDTO<>(content, pageSize, hasNext, nextCursor);
+    }
+
     // Helper method to create Pageable with sorting
     private Pageable createPageable(ProductSearchRequest request) {
         Sort sort;
@@ -225,8 +425,11 @@ public class ProductService {
                 ? Sort.Direction.ASC
                 : Sort.Direction.DESC;
 
-        // Determine sort field
-        String sortBy = request.getSortBy() != null ? request.getSortBy() : "createdAt";
+        // Determine sort field; the database has no relevance, so newest first stands in for it
+        if (request.getSortBy() != null && !ProductFacetIndex.SORT_FIELDS.contains(request.getSortBy())) {
+            throw ProductFacetIndex.unsupportedSort(request.getSortBy());
+        }
+        String sortBy = ProductFacetIndex.sortsByRelevance(request.getSortBy()) ? "createdAt" : request.getSortBy();
         sort = Sort.by(direction, sortBy);
 
         // Create pageable
@@ -238,16 +441,11 @@ public class ProductService {
 
     // Convert Product entity to DTO
     private ProductDTO convertToDTO(Product product) {
-        ProductDTO dto = modelMapper.map(product, ProductDTO.class);
-
-        if (product.getCategory() != null) {
-            dto.setCategory(modelMapper.map(product.getCategory(), CategoryDTO.class));
-        }
-
-        if (product.getBrand() != null) {
-            dto.setBrand(modelMapper.map(product.getBrand(), BrandDTO.class));
-        }
+        return productMapper.toDTO(product);
+    }
 
-        return dto;
+    // One keyset query: rows ordered after (createdAt, id), at most limit of them
+    private interface SeekQuery {
+        List<Product> find(LocalDateTime createdAt, Long id, Pageable limit);
     }
-}
\ No newline at end of file
+}
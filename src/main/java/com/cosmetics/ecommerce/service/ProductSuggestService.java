@@ -0,0 +1,227 @@
+package com.cosmetics.ecommerce.service;
+
+import com.cosmetics.ecommerce.dto.SuggestionDTO;
+import com.cosmetics.ecommerce.entity.Product;
+import com.cosmetics.ecommerce.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Search-box suggestions over product, brand and category names, answered
+ * from a {@link SuggestionTrie} in memory without touching the database.
+ *
+ * Products are weighted by popularity (sales count ten times a view); brands
+ * and categories by the total weight of their active products. The trie is
+ * loaded when the application is ready and updated incrementally from
+ * {@link ProductChangedEvent}s. Sales and views don't publish events, so the
+ * whole catalog is also reloaded every {@code app.suggest.refresh-interval-ms},
+ * which picks up new weights and renamed brands or categories. The reload
+ * builds a new trie aside and swaps it in, so lookups never wait for it.
+ * Product changes are applied in the background through a
+ * {@link ProductViewUpdater}, so checkouts never wait for the trie either.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductSuggestService {
+
+    private static final long SALE_WEIGHT = 10;
+
+    private static final String LOAD_SQL =
+            "SELECT p.id, p.name, p.sold_count, p.view_count, b.id AS brand_id, b.name AS brand_name, " +
+                    "c.id AS category_id, c.name AS category_name " +
+                    "FROM products p " +
+                    "LEFT JOIN brands b ON b.id = p.brand_id " +
+                    "LEFT JOIN categories c ON c.id = p.category_id " +
+                    "WHERE p.is_active = true";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductRepository productRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private SuggestionCatalog catalog = new SuggestionCatalog();
+
+    private final ProductViewUpdater updater = new ProductViewUpdater(this::apply);
+
+    public List<SuggestionDTO> suggest(String query, int limit) {
+        int cappedLimit = Math.max(1, Math.min(limit, SuggestionTrie.MAX_SUGGESTIONS));
+
+        List<SuggestionTrie.Suggestion> suggestions;
+        lock.readLock().lock();
+        try {
+            suggestions = catalog.trie.suggest(query, cappedLimit);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return suggestions.stream()
+                .map(suggestion -> new SuggestionDTO(suggestion.getText(), suggestion.getType(), suggestion.getId()))
+                .collect(Collectors.toList());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    @Scheduled(initialDelayString = "${app.suggest.refresh-interval-ms:600000}",
+            fixedDelayString = "${app.suggest.refresh-interval-ms:600000}")
+    public void reload() {
+        updater.reload(() -> {
+            SuggestionCatalog fresh = new SuggestionCatalog();
+            jdbcTemplate.query(LOAD_SQL, (RowCallbackHandler) rs -> fresh.putProduct(
+                    rs.getLong("id"), rs.getString("name"),
+                    weight(rs.getInt("sold_count"), rs.getInt("view_count")),
+                    rs.getObject("brand_id", Long.class), rs.getString("brand_name"),
+                    rs.getObject("category_id", Long.class), rs.getString("category_name"),
+                    false));
+            fresh.putAllGroups();
+
+            lock.writeLock().lock();
+            try {
+                catalog = fresh;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void onProductsChanged(ProductChangedEvent event) {
+        updater.productsChanged(event.getProductIds());
+    }
+
+    private void apply(Collection<Long> productIds) {
+        List<Product> products = productRepository.findWithCategoryAndBrandByIdIn(productIds);
+        Set<Long> missing = new HashSet<>(productIds);
+
+        lock.writeLock().lock();
+        try {
+            for (Product product : products) {
+                missing.remove(product.getId());
+                if (Boolean.TRUE.equals(product.getIsActive())) {
+                    catalog.putProduct(product.getId(), product.getName(),
+                            weight(product.getSoldCount(), product.getViewCount()),
+                            product.getBrand() != null ? product.getBrand().getId() : null,
+                            product.getBrand() != null ? product.getBrand().getName() : null,
+                            product.getCategory() != null ? product.getCategory().getId() : null,
+                            product.getCategory() != null ? product.getCategory().getName() : null,
+                            true);
+                } else {
+                    catalog.removeProduct(product.getId());
+                }
+            }
+            missing.forEach(catalog::removeProduct);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static long weight(Integer soldCount, Integer viewCount) {
+        return (soldCount != null ? soldCount : 0) * SALE_WEIGHT + (viewCount != null ? viewCount : 0);
+    }
+
+    // The trie plus what is needed to keep brand and category weights up to date
+    private static class SuggestionCatalog {
+
+        private final SuggestionTrie trie = new SuggestionTrie();
+        private final Map<Long, ProductEntry> products = new HashMap<>();
+        private final Map<String, GroupEntry> groups = new HashMap<>();
+
+        void putProduct(long id, String name, long weight, Long brandId, String brandName,
+                        Long categoryId, String categoryName, boolean updateGroups) {
+            removeProduct(id);
+
+            ProductEntry entry = new ProductEntry(weight, brandId, categoryId);
+            products.put(id, entry);
+            trie.put(new SuggestionTrie.Suggestion("product", id, name, weight));
+
+            addToGroup("brand", brandId, brandName, weight, 1, updateGroups);
+            addToGroup("category", categoryId, categoryName, weight, 1, updateGroups);
+        }
+
+        void removeProduct(long id) {
+            ProductEntry entry = products.remove(id);
+            if (entry == null) {
+                return;
+            }
+
+            trie.remove("product:" + id);
+            addToGroup("brand", entry.brandId, null, -entry.weight, -1, true);
+            addToGroup("category", entry.categoryId, null, -entry.weight, -1, true);
+        }
+
+        // Used after a bulk load that skipped per-product group updates
+        void putAllGroups() {
+            groups.forEach((key, group) -> trie.put(group.toSuggestion()));
+        }
+
+        private void addToGroup(String type, Long id, String name, long weight, int productCount, boolean updateTrie) {
+            if (id == null) {
+                return;
+            }
+
+            GroupEntry group = groups.computeIfAbsent(type + ":" + id, key -> new GroupEntry(type, id));
+            if (name != null) {
+                group.name = name;
+            }
+            group.weight += weight;
+            group.productCount += productCount;
+
+            if (group.productCount <= 0) {
+                groups.remove(type + ":" + id);
+                trie.remove(type + ":" + id);
+            } else if (updateTrie && group.name != null) {
+                trie.put(group.toSuggestion());
+            }
+        }
+    }
+
+    private static class ProductEntry {
+
+        private final long weight;
+        private final Long brandId;
+        private final Long categoryId;
+
+        ProductEntry(long weight, Long brandId, Long categoryId) {
+            this.weight = weight;
+            this.brandId = brandId;
+            this.categoryId = categoryId;
+        }
+    }
+
+    private static class GroupEntry {
+
+        private final String type;
+        private final Long id;
+        private String name;
+        private long weight;
+        private int productCount;
+
+        GroupEntry(String type, Long id) {
+            this.type = type;
+            this.id = id;
+        }
+
+        SuggestionTrie.Suggestion toSuggestion() {
+            return new SuggestionTrie.Suggestion(type, id, name, weight);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.cosmetics.ecommerce.service;
+
+import com.cosmetics.ecommerce.entity.Product;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.Directory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Lucene full-text index over the searchable product fields.
+ *
+ * Every active product is one document holding its name, brand, category,
+ * description and ingredients, analysed with English stemming. A keyword
+ * search requires every word to match some field; matches in the name count
+ * most, then brand and category, then description and ingredients. The last
+ * word is also matched as a prefix of name and brand words so partially typed
+ * queries still find products.
+ *
+ * Changes become visible to searches on {@link #commit()}. Plain class so it
+ * can be built over any Lucene Directory; ProductSearchService owns the
+ * on-disk instance.
+ */
+public class ProductTextIndex implements Closeable {
+
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final String BRAND = "brand";
+    private static final String CATEGORY = "category";
+    private static final String DESCRIPTION = "description";
+    private static final String INGREDIENTS = "ingredients";
+
+    private static final String[] FIELDS = {NAME, BRAND, CATEGORY, DESCRIPTION, INGREDIENTS};
+    private static final float[] BOOSTS = {4f, 2f, 2f, 1f, 1f};
+
+    private final Analyzer analyzer = new EnglishAnalyzer();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    public ProductTextIndex(Directory directory) throws IOException {
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    // Adds or replaces the documents of the given products; inactive products are removed
+    public void index(Collection<Product> products) throws IOException {
+        for (Product product : products) {
+            Term id = idTerm(product.getId());
+            if (Boolean.TRUE.equals(product.getIsActive())) {
+                writer.updateDocument(id, toDocument(product));
+            } else {
+                writer.deleteDocuments(id);
+            }
+        }
+    }
+
+    public void remove(Collection<Long> productIds) throws IOException {
+        for (Long productId : productIds) {
+            writer.deleteDocuments(idTerm(productId));
+        }
+    }
+
+    public void clear() throws IOException {
+        writer.deleteAll();
+    }
+
+    // Makes all changes durable and visible to searches
+    public void commit() throws IOException {
+        writer.commit();
+        searcherManager.maybeRefreshBlocking();
+    }
+
+    public int documentCount() throws IOException {
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            return searcher.getIndexReader().numDocs();
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    /**
+     * Product ids ranked by relevance.
+     * @param offset number of best hits to skip
+     * @param limit  maximum number of ids to return
+     */
+    public SearchHits search(String keyword, int offset, int limit) throws IOException {
+        Query query = buildQuery(keyword);
+        if (query == null) {
+            return new SearchHits(List.of(), 0);
+        }
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs topDocs = searcher.search(query, Math.max(offset + limit, 1));
+
+            List<Long> productIds = new ArrayList<>(limit);
+            for (int i = offset; i < topDocs.scoreDocs.length; i++) {
+                ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+                productIds.add(searcher.storedFields().document(scoreDoc.doc).getField(ID).numericValue().longValue());
+            }
+            // Hit counts past Lucene's early-termination threshold are only a lower bound
+            long totalHits = topDocs.totalHits.relation == TotalHits.Relation.EQUAL_TO
+                    ? topDocs.totalHits.value
+                    : searcher.count(query);
+            return new SearchHits(productIds, totalHits);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    // Every matching product id, best first; filters are applied by the caller
+    public List<Long> searchAll(String keyword) throws IOException {
+        Query query = buildQuery(keyword);
+        if (query == null) {
+            return List.of();
+        }
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            int count = searcher.count(query);
+            if (count == 0) {
+                return List.of();
+            }
+
+            TopDocs topDocs = searcher.search(query, count);
+            StoredFields storedFields = searcher.storedFields();
+            List<Long> productIds = new ArrayList<>(topDocs.scoreDocs.length);
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                productIds.add(storedFields.document(scoreDoc.doc).getField(ID).numericValue().longValue());
+            }
+            return productIds;
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        analyzer.close();
+    }
+
+    private Document toDocument(Product product) {
+        Document document = new Document();
+        document.add(new StringField(ID, product.getId().toString(), Field.Store.NO));
+        document.add(new StoredField(ID, product.getId()));
+        addText(document, NAME, product.getName());
+        addText(document, BRAND, product.getBrand() != null ? product.getBrand().getName() : null);
+        addText(document, CATEGORY, product.getCategory() != null ? product.getCategory().getName() : null);
+        addText(document, DESCRIPTION, product.getDescription());
+        addText(document, INGREDIENTS, product.getIngredients());
+        return document;
+    }
+
+    private void addText(Document document, String field, String value) {
+        if (value != null && !value.isBlank()) {
+            document.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    // Every word must match in some field; null when the keyword has no searchable words
+    private Query buildQuery(String keyword) throws IOException {
+        String[] words = keyword.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+");
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        int clauses = 0;
+
+        for (int w = 0; w < words.length; w++) {
+            String word = words[w];
+            if (word.isEmpty()) {
+                continue;
+            }
+
+            BooleanQuery.Builder wordQuery = new BooleanQuery.Builder();
+            String term = analyze(word);
+            if (term != null) {
+                for (int f = 0; f < FIELDS.length; f++) {
+                    wordQuery.add(new BoostQuery(new TermQuery(new Term(FIELDS[f], term)), BOOSTS[f]),
+                            BooleanClause.Occur.SHOULD);
+                }
+            }
+            if (w == words.length - 1) {
+                wordQuery.add(new PrefixQuery(new Term(NAME, word)), BooleanClause.Occur.SHOULD);
+                wordQuery.add(new PrefixQuery(new Term(BRAND, word)), BooleanClause.Occur.SHOULD);
+            } else if (term == null) {
+                continue; // stop word
+            }
+
+            query.add(wordQuery.build(), BooleanClause.Occur.MUST);
+            clauses++;
+        }
+
+        return clauses > 0 ? query.build() : null;
+    }
+
+    // The indexed form of one word, or null for stop words
+    private String analyze(String word) throws IOException {
+        try (TokenStream stream = analyzer.tokenStream(NAME, word)) {
+            CharTermAttribute termAttribute = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            String term = stream.incrementToken() ? termAttribute.toString() : null;
+            stream.end();
+            return term;
+        }
+    }
+
+    private Term idTerm(Long productId) {
+        return new Term(ID, productId.toString());
+    }
+
+    // One page of search results
+    public static class SearchHits {
+
+        private final List<Long> productIds;
+        private final long totalHits;
+
+        public SearchHits(List<Long> productIds, long totalHits) {
+            this.productIds = productIds;
+            this.totalHits = totalHits;
+        }
+
+        public List<Long> getProductIds() {
+            return productIds;
+        }
+
+        public long getTotalHits() {
+            return totalHits;
+        }
+    }
+}
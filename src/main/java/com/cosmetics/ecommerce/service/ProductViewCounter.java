@@ -0,0 +1,86 @@
+package com.cosmetics.ecommerce.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind product view counts.
+ *
+ * A product view only increments an in-memory {@link LongAdder} for that
+ * product, so viewing a product never writes to or locks its row. Every
+ * {@code app.views.flush-interval-ms} the pending counts are added to
+ * {@code view_count} with one batched UPDATE in a single transaction, and
+ * once more when the application shuts down.
+ *
+ * A flush subtracts only what it wrote, and adders are never removed from
+ * the map, so views recorded while a flush runs are kept for the next one.
+ * If the UPDATE fails the counts stay pending and are retried. Views still
+ * pending when the process is killed without a graceful shutdown are lost.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductViewCounter {
+
+    private static final String ADD_VIEWS_SQL =
+            "UPDATE products SET view_count = COALESCE(view_count, 0) + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // One adder per product viewed since startup
+    private final Map<Long, LongAdder> pendingViews = new ConcurrentHashMap<>();
+
+    public void recordView(Long productId) {
+        pendingViews.computeIfAbsent(productId, id -> new LongAdder()).increment();
+    }
+
+    // Views recorded but not yet written to the database
+    public long pendingViews(Long productId) {
+        LongAdder adder = pendingViews.get(productId);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    @Scheduled(initialDelayString = "${app.views.flush-interval-ms:10000}",
+            fixedDelayString = "${app.views.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        // Ascending id order, like every other multi-row product update
+        Map<Long, Long> counts = new TreeMap<>();
+        pendingViews.forEach((productId, adder) -> {
+            long views = adder.sum();
+            if (views > 0) {
+                counts.put(productId, views);
+            }
+        });
+        if (counts.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>(counts.size());
+        counts.forEach((productId, views) -> batchArgs.add(new Object[]{views, productId}));
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(ADD_VIEWS_SQL, batchArgs));
+        } catch (Exception e) {
+            System.err.println("Failed to flush view counts for " + counts.size() + " products: " + e.getMessage());
+            return;
+        }
+
+        counts.forEach((productId, views) -> pendingViews.get(productId).add(-views));
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,89 @@
+package com.cosmetics.ecommerce.service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Keeps an in-memory product view current between full reloads.
+ *
+ * Changed product ids are coalesced: while one thread applies a batch, ids
+ * reported by other threads are queued and applied together in the next
+ * batch, so a burst of orders on the same products costs a few applies
+ * instead of one per order. Ids reported while a reload runs are applied
+ * again once the reload has swapped in its result, since the reload may have
+ * read the products before they changed.
+ */
+class ProductViewUpdater {
+
+    private final Consumer<Collection<Long>> apply;
+
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean applying = new AtomicBoolean();
+
+    private final Set<Long> changedDuringReload = ConcurrentHashMap.newKeySet();
+    private final Object reloadLock = new Object();
+    private volatile boolean reloading;
+
+    /**
+     * @param apply re-reads the given products and applies them to the view; never called concurrently
+     */
+    ProductViewUpdater(Consumer<Collection<Long>> apply) {
+        this.apply = apply;
+    }
+
+    /**
+     * Run a full reload, one at a time.
+     * @param load builds the new view and swaps it in
+     */
+    <T> T reload(Supplier<T> load) {
+        synchronized (reloadLock) {
+            reloading = true;
+            changedDuringReload.clear();
+            try {
+                return load.get();
+            } finally {
+                reloading = false;
+                if (!changedDuringReload.isEmpty()) {
+                    Set<Long> changed = new HashSet<>(changedDuringReload);
+                    changedDuringReload.removeAll(changed);
+                    productsChanged(changed);
+                }
+            }
+        }
+    }
+
+    void reload(Runnable load) {
+        reload(() -> {
+            load.run();
+            return null;
+        });
+    }
+
+    // Apply the products now, or leave them to the thread already applying
+    void productsChanged(Collection<Long> productIds) {
+        if (reloading) {
+            changedDuringReload.addAll(productIds);
+        }
+        pending.addAll(productIds);
+
+        // Re-checked after releasing the flag, so ids queued during the last batch are never stranded
+        while (!pending.isEmpty() && applying.compareAndSet(false, true)) {
+            try {
+                Set<Long> batch = new HashSet<>();
+                for (Iterator<Long> ids = pending.iterator(); ids.hasNext(); ) {
+                    batch.add(ids.next());
+                    ids.remove();
+                }
+                apply.accept(batch);
+            } finally {
+                applying.set(false);
+            }
+        }
+    }
+}
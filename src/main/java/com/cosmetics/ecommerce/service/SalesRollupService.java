@@ -0,0 +1,196 @@
+package com.cosmetics.ecommerce.service;
+
+import com.cosmetics.ecommerce.entity.Order;
+import com.cosmetics.ecommerce.entity.OrderItem;
+import com.cosmetics.ecommerce.repository.DailySalesRollupRepository;
+import com.cosmetics.ecommerce.repository.OrderRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the daily_sales_rollup table in step with orders so the sales trend
+ * endpoints never have to scan order history.
+ *
+ * Order transactions never touch the rollup table: every checkout of a day
+ * would otherwise lock that day's row until commit. The delta of an order is
+ * published as a {@link SalesDelta} and only added to an in-memory buffer once
+ * the order transaction has committed, so a rolled back order never reaches
+ * the rollup. Every {@code app.sales-rollup.flush-interval-ms} the buffered
+ * deltas are merged per day and written with one batched upsert in a single
+ * transaction, and once more when the application shuts down. The trend
+ * endpoints therefore lag behind new orders by up to one flush interval.
+ *
+ * If a flush fails its deltas are put back and retried. Deltas still buffered
+ * when the process is killed are lost; {@link #rebuild()} recomputes the whole
+ * table from orders and repairs any such drift.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class SalesRollupService {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO daily_sales_rollup (sales_date, order_count, paid_revenue, items_sold) " +
+                    "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+                    "order_count = order_count + VALUES(order_count), " +
+                    "paid_revenue = paid_revenue + VALUES(paid_revenue), " +
+                    "items_sold = items_sold + VALUES(items_sold)";
+
+    private static final String REBUILD_SQL =
+            "INSERT INTO daily_sales_rollup (sales_date, order_count, paid_revenue, items_sold) " +
+                    "SELECT CAST(o.created_at AS DATE), " +
+                    "SUM(CASE WHEN o.status <> 'CANCELLED' THEN 1 ELSE 0 END), " +
+                    "SUM(CASE WHEN o.payment_status = 'PAID' THEN o.total_amount ELSE 0 END), " +
+                    "SUM(CASE WHEN o.status <> 'CANCELLED' THEN COALESCE(i.quantity, 0) ELSE 0 END) " +
+                    "FROM orders o " +
+                    "LEFT JOIN (SELECT order_id, SUM(quantity) AS quantity FROM order_items GROUP BY order_id) i " +
+                    "ON i.order_id = o.id " +
+                    "GROUP BY CAST(o.created_at AS DATE)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DailySalesRollupRepository rollupRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Committed deltas not yet written, merged per day
+    private final Map<LocalDate, SalesDelta> pendingDeltas = new ConcurrentHashMap<>();
+
+    // Count a newly placed order
+    public void recordOrderCreated(Order order) {
+        BigDecimal revenue = order.getPaymentStatus() == Order.PaymentStatus.PAID
+                ? order.getTotalAmount()
+                : BigDecimal.ZERO;
+
+        applyDelta(order.getCreatedAt().toLocalDate(), 1, revenue, countItems(order));
+    }
+
+    // Apply a status and/or payment status change of an existing order
+    public void recordOrderUpdated(Order order, Order.OrderStatus previousStatus,
+                                   Order.PaymentStatus previousPaymentStatus) {
+        boolean wasCancelled = previousStatus == Order.OrderStatus.CANCELLED;
+        boolean isCancelled = order.getStatus() == Order.OrderStatus.CANCELLED;
+        boolean wasPaid = previousPaymentStatus == Order.PaymentStatus.PAID;
+        boolean isPaid = order.getPaymentStatus() == Order.PaymentStatus.PAID;
+
+        if (wasCancelled == isCancelled && wasPaid == isPaid) {
+            return;
+        }
+
+        int orderDelta = 0;
+        long itemDelta = 0;
+        if (wasCancelled != isCancelled) {
+            orderDelta = isCancelled ? -1 : 1;
+            itemDelta = isCancelled ? -countItems(order) : countItems(order);
+        }
+
+        BigDecimal revenueDelta = BigDecimal.ZERO;
+        if (wasPaid != isPaid) {
+            revenueDelta = isPaid ? order.getTotalAmount() : order.getTotalAmount().negate();
+        }
+
+        applyDelta(order.getCreatedAt().toLocalDate(), orderDelta, revenueDelta, itemDelta);
+    }
+
+    // Buffer the delta of an order once its transaction has committed
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onSalesDelta(SalesDelta delta) {
+        pendingDeltas.merge(delta.getDay(), delta, SalesDelta::plus);
+    }
+
+    @Scheduled(initialDelayString = "${app.sales-rollup.flush-interval-ms:5000}",
+            fixedDelayString = "${app.sales-rollup.flush-interval-ms:5000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public synchronized void flush() {
+        // Take every pending day out of the buffer; deltas recorded meanwhile start a new entry
+        Map<LocalDate, SalesDelta> deltas = new TreeMap<>();
+        for (LocalDate day : pendingDeltas.keySet()) {
+            SalesDelta delta = pendingDeltas.remove(day);
+            if (delta != null) {
+                deltas.put(day, delta);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>(deltas.size());
+        deltas.values().forEach(delta -> batchArgs.add(new Object[]{
+                delta.getDay(), delta.getOrders(), delta.getRevenue(), delta.getItems()}));
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPSERT_SQL, batchArgs));
+        } catch (Exception e) {
+            System.err.println("Failed to flush sales rollup for " + deltas.size() + " days: " + e.getMessage());
+            deltas.values().forEach(this::onSalesDelta);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // Recompute the rollup from the orders table
+    public synchronized void rebuild() {
+        // Buffered deltas belong to committed orders, which the rebuild counts anyway
+        pendingDeltas.clear();
+        jdbcTemplate.update("DELETE FROM daily_sales_rollup");
+        jdbcTemplate.update(REBUILD_SQL);
+    }
+
+    // Backfill once after the rollup table is introduced on a database that already has orders
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() == 0 && orderRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    private void applyDelta(LocalDate day, int orders, BigDecimal revenue, long items) {
+        eventPublisher.publishEvent(new SalesDelta(day, orders, revenue, items));
+    }
+
+    private long countItems(Order order) {
+        return order.getOrderItems().stream()
+                .mapToLong(OrderItem::getQuantity)
+                .sum();
+    }
+
+    /**
+     * Change to one day's rollup row caused by a single order.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class SalesDelta {
+
+        private final LocalDate day;
+        private final long orders;
+        private final BigDecimal revenue;
+        private final long items;
+
+        SalesDelta plus(SalesDelta other) {
+            return new SalesDelta(day, orders + other.orders, revenue.add(other.revenue), items + other.items);
+        }
+    }
+}
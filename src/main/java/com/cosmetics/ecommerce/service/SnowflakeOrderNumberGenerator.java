@@ -0,0 +1,65 @@
+package com.cosmetics.ecommerce.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style order numbers: "ORD" followed by a 63-bit id made of
+ * 41 bits of milliseconds since 2024-01-01, a 10 bit node id and a 12 bit
+ * per-millisecond sequence.
+ *
+ * Ids are time-ordered and unique across nodes as long as every node runs with
+ * its own {@code app.order.node-id}. Timestamp and sequence live in one
+ * {@link AtomicLong} updated by CAS, so callers never block. When a
+ * millisecond's sequence is exhausted, or the clock moves backwards, the
+ * generator simply keeps counting into the following millisecond.
+ */
+@Component
+public class SnowflakeOrderNumberGenerator implements OrderNumberGenerator {
+
+    static final String PREFIX = "ORD";
+
+    private static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+
+    // (timestamp << SEQUENCE_BITS) | sequence of the last id handed out
+    private final AtomicLong lastState = new AtomicLong();
+
+    public SnowflakeOrderNumberGenerator(@Value("${app.order.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("app.order.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public String nextOrderNumber() {
+        return PREFIX + nextId();
+    }
+
+    long nextId() {
+        long state = nextState();
+        long timestamp = state >>> SEQUENCE_BITS;
+        long sequence = state & SEQUENCE_MASK;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    private long nextState() {
+        while (true) {
+            long now = System.currentTimeMillis() - EPOCH;
+            long previous = lastState.get();
+            long next = now > (previous >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : previous + 1;
+            if (lastState.compareAndSet(previous, next)) {
+                return next;
+            }
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.cosmetics.ecommerce.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Weighted prefix lookup for search-box suggestions.
+ *
+ * A radix trie (edges labelled with whole substrings, not single characters)
+ * holds every suggestion under each of its word starts, so "ser" finds
+ * "Niacinamide Serum". Each node caches the best {@link #MAX_SUGGESTIONS}
+ * suggestions of its subtree, ordered by weight, which makes a lookup a walk
+ * down the prefix plus a copy of that list. Adding, re-weighting or removing
+ * a suggestion only touches the nodes on the paths of its terms.
+ *
+ * Not thread-safe; ProductSuggestService guards it with a read/write lock.
+ */
+public class SuggestionTrie {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private final Node root = new Node("");
+    private final Map<String, Suggestion> suggestionsByKey = new HashMap<>();
+
+    // Adds the suggestion, replacing any previous one with the same key
+    public void put(Suggestion suggestion) {
+        remove(suggestion.getKey());
+        suggestionsByKey.put(suggestion.getKey(), suggestion);
+        for (String term : terms(suggestion.getText())) {
+            insert(root, term, suggestion);
+        }
+    }
+
+    public void remove(String key) {
+        Suggestion suggestion = suggestionsByKey.remove(key);
+        if (suggestion == null) {
+            return;
+        }
+        for (String term : terms(suggestion.getText())) {
+            delete(root, term, suggestion);
+        }
+    }
+
+    public Suggestion get(String key) {
+        return suggestionsByKey.get(key);
+    }
+
+    public int size() {
+        return suggestionsByKey.size();
+    }
+
+    // Best suggestions having a word that starts with the prefix, heaviest first
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String remaining = normalize(prefix);
+        if (remaining.isEmpty()) {
+            return List.of();
+        }
+
+        Node node = root;
+        while (!remaining.isEmpty()) {
+            Node child = node.child(remaining.charAt(0));
+            if (child == null) {
+                return List.of();
+            }
+            if (remaining.length() <= child.label.length()) {
+                if (!child.label.startsWith(remaining)) {
+                    return List.of();
+                }
+                node = child;
+                break;
+            }
+            if (!remaining.startsWith(child.label)) {
+                return List.of();
+            }
+            remaining = remaining.substring(child.label.length());
+            node = child;
+        }
+
+        return new ArrayList<>(node.top.subList(0, Math.min(limit, node.top.size())));
+    }
+
+    // Lower case, words separated by single spaces
+    static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    // The normalized text from each word start: "rose toner" -> "rose toner", "toner"
+    private static Set<String> terms(String text) {
+        String normalized = normalize(text);
+        Set<String> terms = new LinkedHashSet<>();
+        if (normalized.isEmpty()) {
+            return terms;
+        }
+
+        terms.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            terms.add(normalized.substring(i + 1));
+        }
+        return terms;
+    }
+
+    private void insert(Node node, String remaining, Suggestion suggestion) {
+        node.offer(suggestion);
+
+        if (remaining.isEmpty()) {
+            node.terminals.add(suggestion);
+            return;
+        }
+
+        Node child = node.child(remaining.charAt(0));
+        if (child == null) {
+            child = new Node(remaining);
+            node.addChild(child);
+            insert(child, "", suggestion);
+            return;
+        }
+
+        int common = commonPrefixLength(child.label, remaining);
+        if (common < child.label.length()) {
+            // Split the edge: node -> split -> child
+            Node split = new Node(child.label.substring(0, common));
+            split.top.addAll(child.top);
+            node.replaceChild(child, split);
+            child.label = child.label.substring(common);
+            split.addChild(child);
+            child = split;
+        }
+        insert(child, remaining.substring(common), suggestion);
+    }
+
+    // Returns true when the node is left empty and can be dropped by its parent
+    private boolean delete(Node node, String remaining, Suggestion suggestion) {
+        if (remaining.isEmpty()) {
+            node.terminals.remove(suggestion);
+        } else {
+            Node child = node.child(remaining.charAt(0));
+            if (child == null || !remaining.startsWith(child.label)) {
+                return false;
+            }
+            if (delete(child, remaining.substring(child.label.length()), suggestion)) {
+                node.removeChild(child);
+            }
+        }
+
+        if (node.top.contains(suggestion)) {
+            node.recomputeTop();
+        }
+        return node != root && node.terminals.isEmpty() && node.children.length == 0;
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private String label;
+        // Sorted by first character of the label
+        private Node[] children = NO_CHILDREN;
+        private final List<Suggestion> terminals = new ArrayList<>(1);
+        // Best suggestions in this subtree, heaviest first, no duplicates
+        private final List<Suggestion> top = new ArrayList<>(2);
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char first) {
+            int index = indexOf(first);
+            return index >= 0 ? children[index] : null;
+        }
+
+        void addChild(Node child) {
+            int index = -indexOf(child.label.charAt(0)) - 1;
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, index);
+            grown[index] = child;
+            System.arraycopy(children, index, grown, index + 1, children.length - index);
+            children = grown;
+        }
+
+        void replaceChild(Node oldChild, Node newChild) {
+            children[indexOf(oldChild.label.charAt(0))] = newChild;
+        }
+
+        void removeChild(Node child) {
+            int index = indexOf(child.label.charAt(0));
+            Node[] shrunk = new Node[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, index);
+            System.arraycopy(children, index + 1, shrunk, index, children.length - index - 1);
+            children = shrunk;
+        }
+
+        // Binary search over first characters; negative insertion point when absent
+        private int indexOf(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char c = children[mid].label.charAt(0);
+                if (c < first) {
+                    low = mid + 1;
+                } else if (c > first) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        void offer(Suggestion suggestion) {
+            if (top.contains(suggestion)) {
+                return;
+            }
+            if (top.size() == MAX_SUGGESTIONS && !suggestion.outranks(top.get(MAX_SUGGESTIONS - 1))) {
+                return;
+            }
+
+            int index = 0;
+            while (index < top.size() && top.get(index).outranks(suggestion)) {
+                index++;
+            }
+            top.add(index, suggestion);
+            if (top.size() > MAX_SUGGESTIONS) {
+                top.remove(MAX_SUGGESTIONS);
+            }
+        }
+
+        // Rebuilt from this node's own suggestions and the children's (already correct) lists
+        void recomputeTop() {
+            top.clear();
+            terminals.forEach(this::offer);
+            Arrays.stream(children).forEach(child -> child.top.forEach(this::offer));
+        }
+    }
+
+    /**
+     * One suggestion: a product, brand or category name.
+     * Identity is the key, so the same suggestion reached through two words is listed once.
+     */
+    public static final class Suggestion {
+
+        private final String key;
+        private final String text;
+        private final String type;
+        private final Long id;
+        private final long weight;
+
+        public Suggestion(String type, Long id, String text, long weight) {
+            this.key = type + ":" + id;
+            this.text = text;
+            this.type = type;
+            this.id = id;
+            this.weight = weight;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public long getWeight() {
+            return weight;
+        }
+
+        // Heavier first, then alphabetical so ties are stable
+        boolean outranks(Suggestion other) {
+            if (weight != other.weight) {
+                return weight > other.weight;
+            }
+            int byText = text.compareToIgnoreCase(other.text);
+            return byText != 0 ? byText < 0 : key.compareTo(other.key) < 0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Suggestion other && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode();
+        }
+    }
+}
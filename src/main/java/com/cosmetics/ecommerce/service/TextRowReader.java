@@ -0,0 +1,186 @@
+package com.cosmetics.ecommerce.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads CSV and NDJSON product files for the bulk upload.
+ *
+ * Reading is split in two so the expensive part can run in parallel: the
+ * reader hands out raw records in blocks, cutting only at record boundaries
+ * (line ends, except inside quoted CSV fields), and {@link #parse} turns one
+ * record into cell values. parse() is stateless and safe to call from many
+ * threads at once.
+ *
+ * CSV files use the template's column order and start with a header row.
+ * NDJSON files have one object per line, keyed by {@link #JSON_FIELDS} unless
+ * other keys are given.
+ * As with {@link XlsxRowReader}, values are trimmed and blank values are null.
+ */
+public final class TextRowReader implements Closeable {
+
+    // NDJSON keys, in template column order
+    static final String[] JSON_FIELDS = {
+            "name", "description", "price", "discountPrice", "stockQuantity", "category", "brand",
+            "imageUrl", "size", "weight", "ingredients", "isFeatured", "sku"
+    };
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final BufferedReader reader;
+    private final ImportFormat format;
+    private final String[] jsonFields;
+
+    public TextRowReader(File file, ImportFormat format) throws IOException {
+        this(file, format, JSON_FIELDS);
+    }
+
+    // For files with other columns; jsonFields names the NDJSON key of each column
+    public TextRowReader(File file, ImportFormat format, String[] jsonFields) throws IOException {
+        if (format != ImportFormat.CSV && format != ImportFormat.NDJSON) {
+            throw new IllegalArgumentException("Not a text format: " + format);
+        }
+
+        this.reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8);
+        this.format = format;
+        this.jsonFields = jsonFields;
+
+        if (format == ImportFormat.CSV) {
+            nextRecord(); // header
+        }
+    }
+
+    /**
+     * Up to {@code maxRecords} raw records, in file order; empty once the file is exhausted.
+     */
+    public List<String> readBlock(int maxRecords) throws IOException {
+        List<String> block = new ArrayList<>(maxRecords);
+        String record;
+        while (block.size() < maxRecords && (record = nextRecord()) != null) {
+            block.add(record);
+        }
+        return block;
+    }
+
+    /**
+     * Cell values of one record, padded with nulls to {@code columnCount}.
+     *
+     * @throws IllegalArgumentException if the record is malformed
+     */
+    public String[] parse(String record, int columnCount) {
+        return format == ImportFormat.CSV
+                ? parseCsv(record, columnCount)
+                : parseJson(record, columnCount, jsonFields);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // Next non-blank record; a CSV record continues over line breaks while a quoted field is open
+    private String nextRecord() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        if (format == ImportFormat.NDJSON || !hasOpenQuote(line, false)) {
+            return line;
+        }
+
+        StringBuilder record = new StringBuilder(line);
+        boolean open = true;
+        while (open && (line = reader.readLine()) != null) {
+            record.append('\n').append(line);
+            open = hasOpenQuote(line, true);
+        }
+        return record.toString();
+    }
+
+    // Quote state at the end of a line, given the state at its start; "" toggles twice so it cancels out
+    private static boolean hasOpenQuote(String line, boolean openAtStart) {
+        boolean open = openAtStart;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                open = !open;
+            }
+        }
+        return open;
+    }
+
+    private static String[] parseCsv(String record, int columnCount) {
+        String[] values = new String[columnCount];
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int column = 0;
+
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                setValue(values, column++, field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        setValue(values, column, field.toString());
+        return values;
+    }
+
+    private static String[] parseJson(String record, int columnCount, String[] jsonFields) {
+        JsonNode node;
+        try {
+            node = OBJECT_MAPPER.readTree(record);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+
+        String[] values = new String[columnCount];
+        for (int i = 0; i < columnCount && i < jsonFields.length; i++) {
+            JsonNode value = node.get(jsonFields[i]);
+            if (value != null && !value.isNull()) {
+                setValue(values, i, value.asText());
+            }
+        }
+        return values;
+    }
+
+    // Extra columns are ignored, like in the workbook reader
+    private static void setValue(String[] values, int column, String value) {
+        if (column < values.length && !value.isBlank()) {
+            values[column] = value.trim();
+        }
+    }
+}
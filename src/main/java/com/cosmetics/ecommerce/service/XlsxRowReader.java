@@ -0,0 +1,109 @@
+package com.cosmetics.ecommerce.service;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Iterator;
+
+/**
+ * Reads the first sheet of an .xlsx file with POI's event (SAX) API, handing
+ * each data row to an {@link ImportRowHandler} as it is parsed. Unlike
+ * XSSFWorkbook no cell objects are kept, so memory stays flat regardless of
+ * the number of rows (apart from the workbook's shared string table).
+ */
+public final class XlsxRowReader {
+
+    private XlsxRowReader() {
+    }
+
+    /**
+     * @param file        the workbook on disk
+     * @param columnCount number of leading columns to read; later columns are ignored
+     * @param handler     called once per row after the header row
+     */
+    public static void read(File file, int columnCount, ImportRowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                        reader.getStylesTable(), null, strings,
+                        new RowCollector(columnCount, handler), new RawNumberFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Unable to read workbook: " + e.getMessage(), e);
+        }
+    }
+
+    // Collects the cells of the current row and passes completed rows on, skipping the header
+    private static class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final int columnCount;
+        private final ImportRowHandler handler;
+        private String[] values;
+        private int currentColumn;
+
+        RowCollector(int columnCount, ImportRowHandler handler) {
+            this.columnCount = columnCount;
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            values = new String[columnCount];
+            currentColumn = -1;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (rowNum > 0) {
+                handler.handleRow(values);
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            currentColumn = cellReference != null
+                    ? new CellReference(cellReference).getCol()
+                    : currentColumn + 1;
+
+            if (currentColumn < columnCount && formattedValue != null && !formattedValue.trim().isEmpty()) {
+                values[currentColumn] = formattedValue.trim();
+            }
+        }
+    }
+
+    // Numbers come through as their plain value ("599.99", "100") instead of the cell's display format
+    private static class RawNumberFormatter extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString,
+                                            boolean use1904Windowing) {
+            return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+        }
+    }
+}
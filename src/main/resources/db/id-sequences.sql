@@ -0,0 +1,25 @@
+-- Sequence tables for the entities whose ids come from pooled-lo sequences.
+-- MySQL and MariaDB (under MySQLDialect) have no native sequences, so Hibernate keeps
+-- each sequence's next value in a one-row table. Schemas that Hibernate only validates
+-- need these created up front; each is seeded past the highest id already in its table.
+-- Safe to run repeatedly: existing tables and values are left alone.
+
+CREATE TABLE IF NOT EXISTS orders_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO orders_seq (next_val)
+SELECT next_val FROM (SELECT COALESCE(MAX(id), 0) + 1 AS next_val FROM orders) seed
+WHERE NOT EXISTS (SELECT 1 FROM orders_seq);
+
+CREATE TABLE IF NOT EXISTS order_items_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO order_items_seq (next_val)
+SELECT next_val FROM (SELECT COALESCE(MAX(id), 0) + 1 AS next_val FROM order_items) seed
+WHERE NOT EXISTS (SELECT 1 FROM order_items_seq);
+
+CREATE TABLE IF NOT EXISTS products_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO products_seq (next_val)
+SELECT next_val FROM (SELECT COALESCE(MAX(id), 0) + 1 AS next_val FROM products) seed
+WHERE NOT EXISTS (SELECT 1 FROM products_seq);
+
+CREATE TABLE IF NOT EXISTS chat_messages_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO chat_messages_seq (next_val)
+SELECT next_val FROM (SELECT COALESCE(MAX(id), 0) + 1 AS next_val FROM chat_messages) seed
+WHERE NOT EXISTS (SELECT 1 FROM chat_messages_seq);
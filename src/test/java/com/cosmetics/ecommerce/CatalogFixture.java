@@ -0,0 +1,121 @@
+package com.cosmetics.ecommerce;
+
+import com.cosmetics.ecommerce.entity.Brand;
+import com.cosmetics.ecommerce.entity.Category;
+import com.cosmetics.ecommerce.entity.Order;
+import com.cosmetics.ecommerce.entity.OrderItem;
+import com.cosmetics.ecommerce.entity.Product;
+import com.cosmetics.ecommerce.entity.User;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Approved customer, 30 products spread over 10 categories and brands, and 12
+ * orders of 5 items each, for tests that count the SQL needed to load them.
+ */
+public final class CatalogFixture {
+
+	public static final String CUSTOMER = "priya";
+	public static final int PRODUCTS = 30;
+	public static final int ORDERS = 12;
+	public static final int ITEMS_PER_ORDER = 5;
+
+	private final User customer;
+	private final List<Product> products = new ArrayList<>();
+	private final List<Order> orders = new ArrayList<>();
+	private Category lastCategory;
+	private Brand lastBrand;
+
+	private CatalogFixture(User customer) {
+		this.customer = customer;
+	}
+
+	/**
+	 * Create the whole fixture.
+	 * @param persist saves one entity; called for parents before their children
+	 */
+	public static CatalogFixture create(Consumer<Object> persist) {
+		User customer = new User();
+		customer.setUsername(CUSTOMER);
+		customer.setEmail("priya@example.com");
+		customer.setPassword("secret");
+		customer.setApproved(true);
+		customer.setAccountStatus(User.AccountStatus.APPROVED);
+		persist.accept(customer);
+
+		CatalogFixture fixture = new CatalogFixture(customer);
+		for (int i = 0; i < PRODUCTS; i++) {
+			// A different category and brand every few products, so lazy loading would hit many rows
+			if (i % 3 == 0) {
+				fixture.lastCategory = new Category();
+				fixture.lastCategory.setName("Category " + i);
+				persist.accept(fixture.lastCategory);
+
+				fixture.lastBrand = new Brand();
+				fixture.lastBrand.setName("Brand " + i);
+				persist.accept(fixture.lastBrand);
+			}
+
+			Product product = new Product();
+			product.setName("Product " + i);
+			product.setSku("SKU-" + i);
+			product.setPrice(new BigDecimal("199.00"));
+			product.setStockQuantity(i % 10);
+			product.setCategory(fixture.lastCategory);
+			product.setBrand(fixture.lastBrand);
+			persist.accept(product);
+			fixture.products.add(product);
+		}
+
+		for (int i = 0; i < ORDERS; i++) {
+			Order order = new Order();
+			order.setOrderNumber("ORD-" + i);
+			order.setUser(customer);
+			order.setTotalAmount(new BigDecimal("995.00"));
+			order.setPaymentMethod(Order.PaymentMethod.CASH_ON_DELIVERY);
+			order.setShippingAddress("12 MG Road");
+			order.setShippingCity("Pune");
+			order.setShippingState("MH");
+			order.setShippingZipCode("411001");
+			order.setShippingCountry("India");
+			order.setCustomerName("Priya");
+			order.setCustomerPhone("9800000000");
+			for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+				OrderItem item = new OrderItem();
+				item.setOrder(order);
+				item.setProduct(fixture.products.get((i * ITEMS_PER_ORDER + j) % PRODUCTS));
+				item.setQuantity(1);
+				item.setPrice(new BigDecimal("199.00"));
+				order.getOrderItems().add(item);
+			}
+			persist.accept(order);
+			fixture.orders.add(order);
+		}
+
+		return fixture;
+	}
+
+	public User getCustomer() {
+		return customer;
+	}
+
+	public List<Product> getProducts() {
+		return products;
+	}
+
+	public List<Order> getOrders() {
+		return orders;
+	}
+
+	// Category and brand of the last products created
+	public Category getLastCategory() {
+		return lastCategory;
+	}
+
+	public Brand getLastBrand() {
+		return lastBrand;
+	}
+}
@@ -0,0 +1,74 @@
+package com.cosmetics.ecommerce.config;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Assertions on the SQL run by the test thread since the last {@link #reset()},
+ * including everything MockMvc requests ran. Needs {@code app.sql-stats.enabled=true}.
+ */
+public final class SqlAssertions {
+
+	private static SqlStatementCounter.Stats stats;
+
+	private SqlAssertions() {
+	}
+
+	// Start counting from zero
+	public static void reset() {
+		clear();
+		stats = SqlStatementCounter.start();
+	}
+
+	// Stop counting; call after each test
+	public static void clear() {
+		if (stats != null) {
+			SqlStatementCounter.stop(stats);
+			stats = null;
+		}
+	}
+
+	public static void assertSelectCount(int expected) {
+		assertEquals(expected, stats().getSelectCount(), () -> "SELECT statements" + repeatedSummary());
+	}
+
+	public static void assertInsertCount(int expected) {
+		assertEquals(expected, stats().getInsertCount(), "INSERT statements");
+	}
+
+	public static void assertUpdateCount(int expected) {
+		assertEquals(expected, stats().getUpdateCount(), "UPDATE statements");
+	}
+
+	public static void assertDeleteCount(int expected) {
+		assertEquals(expected, stats().getDeleteCount(), "DELETE statements");
+	}
+
+	public static void assertStatementCount(int expected) {
+		assertEquals(expected, stats().getStatementCount(), () -> "statements" + repeatedSummary());
+	}
+
+	// No statement ran twice, which is how an N+1 shows up
+	public static void assertNoRepeatedStatements() {
+		assertTrue(stats().getRepeatedStatements().isEmpty(), () -> "repeated statements" + repeatedSummary());
+	}
+
+	// Executions beyond the first of every statement
+	public static void assertRepeatedExecutionCount(int expected) {
+		assertEquals(expected, stats().getRepeatedExecutionCount(), () -> "repeated executions" + repeatedSummary());
+	}
+
+	private static SqlStatementCounter.Stats stats() {
+		assertNotNull(stats, "SqlAssertions.reset() was not called");
+		return stats;
+	}
+
+	private static String repeatedSummary() {
+		StringBuilder summary = new StringBuilder();
+		for (Map.Entry<String, Integer> repeated : stats.getRepeatedStatements().entrySet()) {
+			summary.append("\n  ").append(repeated.getValue()).append("x ").append(repeated.getKey());
+		}
+		return summary.toString();
+	}
+}
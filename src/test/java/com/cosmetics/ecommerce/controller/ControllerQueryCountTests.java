@@ -0,0 +1,174 @@
+package com.cosmetics.ecommerce.controller;
+
+import com.cosmetics.ecommerce.CatalogFixture;
+import com.cosmetics.ecommerce.entity.Category;
+import com.cosmetics.ecommerce.entity.Order;
+import com.cosmetics.ecommerce.entity.Product;
+import com.cosmetics.ecommerce.repository.CategoryRepository;
+import com.cosmetics.ecommerce.repository.OrderRepository;
+import com.cosmetics.ecommerce.repository.ProductRepository;
+import com.cosmetics.ecommerce.repository.UserRepository;
+import com.cosmetics.ecommerce.service.CatalogSnapshotService;
+import com.cosmetics.ecommerce.service.ProductFacetService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static com.cosmetics.ecommerce.CatalogFixture.CUSTOMER;
+import static com.cosmetics.ecommerce.config.SqlAssertions.*;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Baseline SQL per request for the product, order and admin endpoints; a higher count is a regression
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class ControllerQueryCountTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private CatalogSnapshotService catalogSnapshotService;
+
+	@Autowired
+	private ProductFacetService productFacetService;
+
+	private Category category;
+	private Product product;
+	private Order order;
+
+	@BeforeEach
+	void createCatalogAndOrders() {
+		if (userRepository.findByUsername(CUSTOMER).isEmpty()) {
+			transactionTemplate.executeWithoutResult(status -> CatalogFixture.create(entityManager::persist));
+
+			// Written directly, so the in-memory read models have to be told
+			catalogSnapshotService.reload();
+			productFacetService.reload();
+		}
+
+		category = categoryRepository.findAll().get(0);
+		product = productRepository.findAll().get(0);
+		order = orderRepository.findByOrderNumber("ORD-0").orElseThrow();
+		reset();
+	}
+
+	@AfterEach
+	void stopCounting() {
+		clear();
+	}
+
+	// ProductController
+
+	@Test
+	void productListingIsServedFromTheCatalogSnapshot() throws Exception {
+		mockMvc.perform(get("/api/products").param("size", "20"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Server-Timing", containsString("db-select;desc=0")));
+		mockMvc.perform(get("/api/products/category/" + category.getId())).andExpect(status().isOk());
+		mockMvc.perform(get("/api/products/featured")).andExpect(status().isOk());
+		mockMvc.perform(get("/api/products/top-selling")).andExpect(status().isOk());
+		assertStatementCount(0);
+	}
+
+	@Test
+	void productCursorPageIsOneSelect() throws Exception {
+		mockMvc.perform(get("/api/products").param("after", "").param("size", "20")).andExpect(status().isOk());
+		assertSelectCount(1);
+	}
+
+	@Test
+	void productById() throws Exception {
+		mockMvc.perform(get("/api/products/" + product.getId())).andExpect(status().isOk());
+		assertSelectCount(3);
+		assertNoRepeatedStatements();
+	}
+
+	@Test
+	void filteredSearchIsAnsweredInMemory() throws Exception {
+		mockMvc.perform(post("/api/products/search").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"categoryId\": " + category.getId() + ", \"inStock\": true}"))
+				.andExpect(status().isOk());
+		assertStatementCount(0);
+	}
+
+	// OrderController
+
+	@Test
+	@WithMockUser(username = CUSTOMER)
+	void myOrdersBatchFetchItemsAndProducts() throws Exception {
+		mockMvc.perform(get("/api/orders/my-orders").param("size", "10")).andExpect(status().isOk());
+		assertSelectCount(6);
+		// The approval filter and OrderService both look the user up
+		assertRepeatedExecutionCount(1);
+	}
+
+	@Test
+	@WithMockUser(username = CUSTOMER)
+	void orderById() throws Exception {
+		mockMvc.perform(get("/api/orders/" + order.getId())).andExpect(status().isOk());
+		assertSelectCount(5);
+		assertRepeatedExecutionCount(1);
+	}
+
+	// AdminController
+
+	@Test
+	@WithMockUser(username = "admin", roles = "ADMIN")
+	void adminOrderPagesBatchFetchItemsAndProducts() throws Exception {
+		mockMvc.perform(get("/api/admin/orders").param("size", "10")).andExpect(status().isOk());
+		assertSelectCount(4);
+		assertNoRepeatedStatements();
+
+		reset();
+		mockMvc.perform(get("/api/admin/orders/status/PENDING").param("size", "10")).andExpect(status().isOk());
+		assertSelectCount(4);
+		assertNoRepeatedStatements();
+	}
+
+	@Test
+	@WithMockUser(username = "admin", roles = "ADMIN")
+	void adminDashboardLists() throws Exception {
+		mockMvc.perform(get("/api/admin/orders/recent")).andExpect(status().isOk());
+		assertSelectCount(2);
+
+		reset();
+		mockMvc.perform(get("/api/admin/products/low-stock").param("threshold", "5")).andExpect(status().isOk());
+		assertSelectCount(1);
+
+		reset();
+		mockMvc.perform(get("/api/admin/stats/orders")).andExpect(status().isOk());
+		assertSelectCount(1);
+	}
+}
@@ -0,0 +1,121 @@
+package com.cosmetics.ecommerce.mapper;
+
+import com.cosmetics.ecommerce.dto.BrandDTO;
+import com.cosmetics.ecommerce.dto.CategoryDTO;
+import com.cosmetics.ecommerce.dto.ProductDTO;
+import com.cosmetics.ecommerce.entity.Brand;
+import com.cosmetics.ecommerce.entity.Category;
+import com.cosmetics.ecommerce.entity.Product;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductMapperTests {
+
+	private static final int ROUNDS = 500_000;
+
+	private final ProductMapper productMapper = new ProductMapper(new CategoryMapper(), new BrandMapper());
+	private final ModelMapper modelMapper = new ModelMapper();
+
+	@Test
+	void mapsTheSameFieldsAsModelMapper() {
+		Product product = product();
+		assertEquals(modelMapperToDTO(product), productMapper.toDTO(product));
+
+		product.setCategory(null);
+		product.setBrand(null);
+		product.setDiscountPrice(null);
+		ProductDTO dto = productMapper.toDTO(product);
+		assertEquals(modelMapperToDTO(product), dto);
+		assertNull(dto.getCategory());
+		assertNull(dto.getBrand());
+		assertNull(productMapper.toDTO(null));
+	}
+
+	// Time and heap allocated per mapped product, ModelMapper as ProductService used it against the mapper
+	@Tag("benchmark")
+	@Test
+	void mapperIsCheaperThanModelMapper() {
+		Product product = product();
+
+		double[] before = measure(this::modelMapperToDTO, product, ROUNDS / 10);
+		double[] after = measure(productMapper::toDTO, product, ROUNDS);
+
+		System.out.printf("Product to DTO: ModelMapper %.0f ns/op %.0f B/op, ProductMapper %.0f ns/op %.0f B/op%n",
+				before[0], before[1], after[0], after[1]);
+		assertTrue(after[0] < before[0], "mapper should be faster than ModelMapper");
+		assertTrue(after[1] < before[1], "mapper should allocate less than ModelMapper");
+	}
+
+	// {ns/op, bytes/op} on the calling thread
+	private double[] measure(Function<Product, ProductDTO> mapper, Product product, int rounds) {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+
+		long checksum = 0;
+		for (int i = 0; i < rounds / 5; i++) {
+			checksum += mapper.apply(product).getName().length();
+		}
+
+		long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+		long start = System.nanoTime();
+		for (int i = 0; i < rounds; i++) {
+			checksum += mapper.apply(product).getName().length();
+		}
+		long elapsed = System.nanoTime() - start;
+		long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+		assertTrue(checksum > 0);
+		return new double[]{(double) elapsed / rounds, (double) allocated / rounds};
+	}
+
+	private ProductDTO modelMapperToDTO(Product product) {
+		ProductDTO dto = modelMapper.map(product, ProductDTO.class);
+		if (product.getCategory() != null) {
+			dto.setCategory(modelMapper.map(product.getCategory(), CategoryDTO.class));
+		}
+		if (product.getBrand() != null) {
+			dto.setBrand(modelMapper.map(product.getBrand(), BrandDTO.class));
+		}
+		return dto;
+	}
+
+	private Product product() {
+		Category category = new Category();
+		category.setId(3L);
+		category.setName("Skin Care");
+		category.setDescription("Serums and moisturizers");
+		category.setImageUrl("/img/skin.png");
+
+		Brand brand = new Brand();
+		brand.setId(7L);
+		brand.setName("Minimalist");
+		brand.setDescription("Ingredient-first skin care");
+		brand.setLogoUrl("/img/minimalist.png");
+
+		Product product = new Product();
+		product.setId(42L);
+		product.setName("Niacinamide 10% Serum");
+		product.setSku("MIN-NIA-30");
+		product.setDescription("Oil balancing serum");
+		product.setPrice(new BigDecimal("599.00"));
+		product.setDiscountPrice(new BigDecimal("549.00"));
+		product.setStockQuantity(120);
+		product.setImageUrl("/img/nia.png");
+		product.setCategory(category);
+		product.setBrand(brand);
+		product.setSize("30ml");
+		product.setWeight("45g");
+		product.setIngredients("Aqua, Niacinamide, Zinc PCA");
+		product.setIsFeatured(true);
+		product.setViewCount(1500);
+		product.setSoldCount(230);
+		return product;
+	}
+}
@@ -0,0 +1,118 @@
+package com.cosmetics.ecommerce.repository;
+
+import com.cosmetics.ecommerce.CatalogFixture;
+import com.cosmetics.ecommerce.entity.Brand;
+import com.cosmetics.ecommerce.entity.Category;
+import com.cosmetics.ecommerce.entity.Order;
+import com.cosmetics.ecommerce.entity.OrderItem;
+import com.cosmetics.ecommerce.entity.Product;
+import com.cosmetics.ecommerce.entity.User;
+import com.cosmetics.ecommerce.mapper.BrandMapper;
+import com.cosmetics.ecommerce.mapper.CategoryMapper;
+import com.cosmetics.ecommerce.mapper.ProductMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Statements needed to load a page and everything its DTOs read, independent of the page size
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"spring.jpa.show-sql=false"
+})
+class ListQueryStatementCountTests {
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	private final ProductMapper productMapper = new ProductMapper(new CategoryMapper(), new BrandMapper());
+
+	private User customer;
+	private Category category;
+	private Brand brand;
+
+	@BeforeEach
+	void createCatalogAndOrders() {
+		CatalogFixture fixture = CatalogFixture.create(entityManager::persist);
+		customer = fixture.getCustomer();
+		category = fixture.getLastCategory();
+		brand = fixture.getLastBrand();
+
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void productPagesLoadCategoryAndBrandWithTheProducts() {
+		PageRequest page = PageRequest.of(0, 20);
+
+		assertStatements(2, () -> toDTOs(productRepository.findByIsActiveTrue(page)));
+		assertStatements(2, () -> toDTOs(productRepository.findByCategoryIdAndIsActiveTrue(category.getId(), PageRequest.of(0, 2))));
+		assertStatements(2, () -> toDTOs(productRepository.findByBrandIdAndIsActiveTrue(brand.getId(), PageRequest.of(0, 2))));
+		assertStatements(2, () -> toDTOs(productRepository.searchByName("product", page)));
+		assertStatements(2, () -> toDTOs(productRepository.findByPriceRange(100.0, 300.0, page)));
+		assertStatements(1, () -> productRepository.findLowStockProducts(50).stream().map(productMapper::toDTO).count());
+	}
+
+	@Test
+	void orderPagesBatchFetchItemsAndTheirProducts() {
+		PageRequest page = PageRequest.of(0, 10, Sort.by("createdAt").descending());
+
+		// Page, count, one batch of items, one batch of products
+		assertStatements(4, () -> walk(orderRepository.findAll(page).getContent()));
+		assertStatements(4, () -> walk(orderRepository.findByUserId(customer.getId(), page).getContent()));
+		assertStatements(4, () -> walk(orderRepository.findByStatus(Order.OrderStatus.PENDING, page).getContent()));
+		assertStatements(1, () -> walk(orderRepository.findByUserId(customer.getId())));
+		assertStatements(2, () -> orderRepository.findTop10ByOrderByCreatedAtDesc().stream()
+				.mapToInt(order -> order.getOrderItems().size()).sum());
+	}
+
+	private long toDTOs(Page<Product> products) {
+		return products.map(productMapper::toDTO).getNumberOfElements();
+	}
+
+	// Everything OrderService.convertToDTO reads
+	private long walk(List<Order> orders) {
+		long touched = 0;
+		for (Order order : orders) {
+			touched += order.getUser().getUsername().length();
+			for (OrderItem item : order.getOrderItems()) {
+				touched += item.getProduct().getName().length() + (item.getProduct().getImageUrl() != null ? 1 : 0);
+			}
+		}
+		assertTrue(touched > 0);
+		return touched;
+	}
+
+	private void assertStatements(int expected, Supplier<?> load) {
+		entityManager.clear();
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		load.get();
+
+		assertEquals(expected, statistics.getPrepareStatementCount());
+	}
+}
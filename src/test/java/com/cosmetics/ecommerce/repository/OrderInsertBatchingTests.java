@@ -0,0 +1,98 @@
+package com.cosmetics.ecommerce.repository;
+
+import com.cosmetics.ecommerce.entity.Order;
+import com.cosmetics.ecommerce.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Pooled sequence ids let Hibernate batch order inserts; IDENTITY ids would need one statement per row
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:inserts;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("h2")
+class OrderInsertBatchingTests {
+
+	private static final int ORDERS = 5_000;
+	private static final int BATCH_SIZE = 50;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void sequencedOrdersAreInsertedInBatches() {
+		User customer = customer();
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		long before = orderRepository.count();
+
+		statistics.clear();
+		persistOrders(customer, ORDERS);
+
+		// One insert per batch of 50 plus one sequence call per 50 ids
+		assertEquals(ORDERS, statistics.getEntityInsertCount());
+		assertTrue(statistics.getPrepareStatementCount() <= 2L * ORDERS / BATCH_SIZE + 2,
+				"sequenced inserts were not batched: " + statistics.getPrepareStatementCount() + " statements");
+		assertEquals(before + ORDERS, orderRepository.count());
+	}
+
+	private void persistOrders(User customer, int count) {
+		transactionTemplate.executeWithoutResult(status -> {
+			User owner = entityManager.getReference(User.class, customer.getId());
+			for (int i = 0; i < count; i++) {
+				entityManager.persist(order(owner, "JPA-" + i));
+				if ((i + 1) % BATCH_SIZE == 0) {
+					entityManager.flush();
+					entityManager.clear();
+					owner = entityManager.getReference(User.class, customer.getId());
+				}
+			}
+		});
+	}
+
+	private Order order(User owner, String orderNumber) {
+		Order order = new Order();
+		order.setOrderNumber(orderNumber);
+		order.setUser(owner);
+		order.setTotalAmount(new BigDecimal("749.00"));
+		order.setPaymentMethod(Order.PaymentMethod.UPI);
+		order.setShippingAddress("12 MG Road");
+		order.setShippingCity("Pune");
+		order.setShippingState("MH");
+		order.setShippingZipCode("411001");
+		order.setShippingCountry("India");
+		order.setCustomerName("Priya");
+		order.setCustomerPhone("9800000000");
+		return order;
+	}
+
+	private User customer() {
+		User customer = new User();
+		customer.setUsername("bulk-orders");
+		customer.setEmail("bulk-orders@example.com");
+		customer.setPassword("secret");
+		return userRepository.save(customer);
+	}
+}
@@ -0,0 +1,107 @@
+package com.cosmetics.ecommerce.service;
+
+import com.cosmetics.ecommerce.entity.User;
+import com.cosmetics.ecommerce.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Dashboard analytics read aggregates only, so their heap use does not grow with the order table.
+// H2 runs as a TCP server, so like MySQL it scans on its own threads and only the application's allocations are measured.
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("h2")
+class AnalyticsServiceHeapTests {
+
+	private static Server server;
+
+	private static final int SMALL = 2_000;
+	private static final int LARGE = 50_000;
+	private static final int ROUNDS = 5;
+	private static final long FIRST_ORDER_ID = 1_000_000;
+
+	@Autowired
+	private AnalyticsService analyticsService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+
+	@DynamicPropertySource
+	static void startDatabaseServer(DynamicPropertyRegistry registry) throws SQLException {
+		server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+		registry.add("spring.datasource.url", () -> "jdbc:h2:tcp://localhost:" + server.getPort()
+				+ "/mem:analytics;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+	}
+
+	@AfterAll
+	static void stopDatabaseServer() {
+		server.stop();
+	}
+
+	@Test
+	void heapUseDoesNotGrowWithTheNumberOfOrders() {
+		User customer = AnalyticsServiceTests.customer(userRepository);
+
+		AnalyticsServiceTests.insertOrders(jdbcTemplate, customer, FIRST_ORDER_ID, SMALL);
+		long small = allocatedPerRound();
+		Map<String, Long> distribution = analyticsService.getOrderStatusDistribution();
+		assertEquals(SMALL, distribution.values().stream().mapToLong(Long::longValue).sum());
+
+		AnalyticsServiceTests.insertOrders(jdbcTemplate, customer, FIRST_ORDER_ID + SMALL, LARGE - SMALL);
+		long large = allocatedPerRound();
+		distribution = analyticsService.getOrderStatusDistribution();
+		assertEquals(LARGE, distribution.values().stream().mapToLong(Long::longValue).sum());
+		assertEquals(LARGE, ((Number) analyticsService.getDashboardStats().get("totalOrders")).longValue());
+
+		System.out.printf("Dashboard analytics heap allocated per refresh: %d orders %d KB, %d orders %d KB%n",
+				SMALL, small / 1024, LARGE, large / 1024);
+		// 25 times the orders, well under twice the allocation
+		assertTrue(large < small * 2, "analytics allocation should not grow with the number of orders");
+	}
+
+	// Bytes allocated by one refresh of the order analytics, which must not load a single order entity
+	private long allocatedPerRound() {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		refresh();
+		statistics.clear();
+		long before = threads.getCurrentThreadAllocatedBytes();
+		for (int i = 0; i < ROUNDS; i++) {
+			refresh();
+		}
+		long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+		assertEquals(0, statistics.getEntityLoadCount(), "order analytics loaded entities");
+		return allocated / ROUNDS;
+	}
+
+	private void refresh() {
+		analyticsService.getRevenueSummary();
+		analyticsService.getDashboardStats();
+		analyticsService.getOrderStatusDistribution();
+	}
+}
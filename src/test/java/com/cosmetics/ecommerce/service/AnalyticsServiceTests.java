@@ -0,0 +1,94 @@
+package com.cosmetics.ecommerce.service;
+
+import com.cosmetics.ecommerce.entity.Order;
+import com.cosmetics.ecommerce.entity.User;
+import com.cosmetics.ecommerce.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Dashboard analytics come from aggregate queries, without loading order entities
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:analytics;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("h2")
+class AnalyticsServiceTests {
+
+	private static final int ORDERS = 600;
+
+	@Autowired
+	private AnalyticsService analyticsService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void countsOrdersByStatusWithoutLoadingThem() {
+		insertOrders(jdbcTemplate, customer(userRepository), 1, ORDERS);
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		Map<String, Long> distribution = analyticsService.getOrderStatusDistribution();
+		Map<String, Object> stats = analyticsService.getDashboardStats();
+		analyticsService.getRevenueSummary();
+
+		// Statuses are assigned round-robin by id
+		Order.OrderStatus[] statuses = Order.OrderStatus.values();
+		for (Order.OrderStatus status : statuses) {
+			assertEquals(ORDERS / statuses.length, distribution.get(status.name()), status.name());
+		}
+		assertEquals(ORDERS, ((Number) stats.get("totalOrders")).longValue());
+		assertEquals(0, statistics.getEntityLoadCount(), "order analytics loaded entities");
+	}
+
+	static User customer(UserRepository userRepository) {
+		User customer = new User();
+		customer.setUsername("analytics");
+		customer.setEmail("analytics@example.com");
+		customer.setPassword("secret");
+		return userRepository.save(customer);
+	}
+
+	// Orders with ids firstId onwards, spread over statuses and the last 2,000 hours; a third of them paid
+	static void insertOrders(JdbcTemplate jdbcTemplate, User customer, long firstId, int count) {
+		Order.OrderStatus[] statuses = Order.OrderStatus.values();
+		LocalDateTime now = LocalDateTime.now();
+		List<Object[]> batch = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			long id = firstId + i;
+			Timestamp createdAt = Timestamp.valueOf(now.minusHours(id % 2_000));
+			batch.add(new Object[]{id, "ORD-" + id, customer.getId(), new BigDecimal("749.00"),
+					statuses[(int) (id % statuses.length)].name(), (id % 3 == 0 ? Order.PaymentStatus.PAID : Order.PaymentStatus.PENDING).name(),
+					createdAt, createdAt});
+			if (batch.size() == 1_000 || i == count - 1) {
+				jdbcTemplate.batchUpdate("INSERT INTO orders (id, order_number, user_id, total_amount, status, " +
+						"payment_status, payment_method, shipping_address, shipping_city, shipping_state, " +
+						"shipping_zip_code, shipping_country, customer_name, customer_phone, created_at, updated_at) " +
+						"VALUES (?, ?, ?, ?, ?, ?, 'UPI', '12 MG Road', 'Pune', 'MH', '411001', 'India', " +
+						"'Priya', '9800000000', ?, ?)", batch);
+				batch.clear();
+			}
+		}
+	}
+}
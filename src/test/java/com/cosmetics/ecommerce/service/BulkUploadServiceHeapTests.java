@@ -0,0 +1,139 @@
+package com.cosmetics.ecommerce.service;
+
+import com.cosmetics.ecommerce.repository.BrandRepository;
+import com.cosmetics.ecommerce.repository.CategoryRepository;
+import com.cosmetics.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.clearInvocations;
+
+// A 500k-row workbook imports with the heap it retains independent of the file's size.
+// The database is an H2 file with an 8 MB page cache, so the imported rows are not held on the heap being measured;
+// the catalog's in-memory views are mocked for the same reason, since they legitimately grow with the catalog.
+// The schema is recreated on the next run instead of dropped on exit, and H2 is left for Spring to close.
+@Tag("benchmark")
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:file:./target/import-heap/db;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CACHE_SIZE=8192;DB_CLOSE_ON_EXIT=FALSE",
+		"spring.jpa.hibernate.ddl-auto=create"
+})
+@ActiveProfiles("h2")
+class BulkUploadServiceHeapTests {
+
+	private static final int ROWS = Integer.getInteger("benchmark.import-rows", 500_000);
+	private static final int SAMPLE_EVERY_ROWS = 25_000;
+	private static final long MAX_RETAINED_BYTES = 64L * 1024 * 1024;
+	private static final long MAX_GROWTH_BYTES = 16L * 1024 * 1024;
+
+	@TempDir
+	Path tempDir;
+
+	@Autowired
+	private BulkUploadService bulkUploadService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private BrandRepository brandRepository;
+
+	@MockitoBean
+	private ProductSearchService productSearchService;
+
+	@MockitoBean
+	private ProductSuggestService productSuggestService;
+
+	@MockitoBean
+	private ProductFacetService productFacetService;
+
+	@MockitoBean
+	private CatalogSnapshotService catalogSnapshotService;
+
+	@Test
+	void largeWorkbookImportsInBoundedHeap() throws Exception {
+		BulkUploadServiceTests.saveCatalog(categoryRepository, brandRepository);
+		File workbook = BulkUploadServiceTests.writeWorkbook(tempDir.resolve("products.xlsx").toFile(), ROWS);
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		long baseline = retainedHeap(memory);
+		AtomicLong firstHalfPeak = new AtomicLong(Long.MIN_VALUE);
+		AtomicLong secondHalfPeak = new AtomicLong(Long.MIN_VALUE);
+		AtomicInteger imported = new AtomicInteger();
+		AtomicInteger failed = new AtomicInteger();
+
+		long start = System.nanoTime();
+		bulkUploadService.importProducts(workbook, ImportFormat.XLSX, new ImportProgressListener() {
+			private int nextSample = SAMPLE_EVERY_ROWS;
+
+			@Override
+			public void rowSucceeded(int rowNumber, String productName) {
+				imported.incrementAndGet();
+			}
+
+			@Override
+			public void rowUpdated(int rowNumber, String productName) {
+				imported.incrementAndGet();
+			}
+
+			@Override
+			public void rowUnchanged(int rowNumber) {
+			}
+
+			@Override
+			public void rowFailed(int rowNumber, String message) {
+				failed.incrementAndGet();
+			}
+
+			@Override
+			public void chunkCompleted(int rowsParsed) {
+				if (rowsParsed >= nextSample) {
+					nextSample += SAMPLE_EVERY_ROWS;
+					// The mocks record every ProductChangedEvent they receive, which is test state, not the import's
+					clearInvocations(productSearchService, productSuggestService, productFacetService, catalogSnapshotService);
+					long retained = retainedHeap(memory) - baseline;
+					(rowsParsed <= ROWS / 2 ? firstHalfPeak : secondHalfPeak).accumulateAndGet(retained, Math::max);
+				}
+			}
+
+			@Override
+			public boolean isCancelled() {
+				return false;
+			}
+		});
+		long elapsed = System.nanoTime() - start;
+
+		assertEquals(0, failed.get());
+		assertEquals(ROWS, imported.get());
+		assertEquals(ROWS, productRepository.count());
+
+		long peak = Math.max(firstHalfPeak.get(), secondHalfPeak.get());
+		System.out.printf("Imported %d rows (%d MB workbook) in %d s (%.0f rows/s), heap retained over baseline " +
+						"at most %d MB in the first half, %d MB in the second%n",
+				ROWS, workbook.length() / (1024 * 1024), elapsed / 1_000_000_000, ROWS * 1e9 / elapsed,
+				firstHalfPeak.get() / (1024 * 1024), secondHalfPeak.get() / (1024 * 1024));
+		assertTrue(peak < MAX_RETAINED_BYTES, "import retained " + peak / (1024 * 1024) + " MB");
+		// Twice the rows read, no more than a few chunks' worth of extra heap
+		assertTrue(secondHalfPeak.get() - firstHalfPeak.get() < MAX_GROWTH_BYTES, "retained heap grew with the rows read");
+	}
+
+	// Heap still in use after a full collection
+	private static long retainedHeap(MemoryMXBean memory) {
+		System.gc();
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+}
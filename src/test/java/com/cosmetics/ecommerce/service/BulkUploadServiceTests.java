@@ -0,0 +1,134 @@
+package com.cosmetics.ecommerce.service;
+
+import com.cosmetics.ecommerce.entity.Brand;
+import com.cosmetics.ecommerce.entity.Category;
+import com.cosmetics.ecommerce.repository.BrandRepository;
+import com.cosmetics.ecommerce.repository.CategoryRepository;
+import com.cosmetics.ecommerce.repository.ProductRepository;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A streamed workbook imports in chunks, and importing it again writes nothing
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:bulk-upload;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("h2")
+class BulkUploadServiceTests {
+
+	private static final int ROWS = 2_000;
+
+	@TempDir
+	Path tempDir;
+
+	@Autowired
+	private BulkUploadService bulkUploadService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private BrandRepository brandRepository;
+
+	@Test
+	void workbookImportsEveryRowOnce() throws Exception {
+		saveCatalog(categoryRepository, brandRepository);
+		File workbook = writeWorkbook(tempDir.resolve("products.xlsx").toFile(), ROWS);
+
+		CountingListener first = new CountingListener();
+		bulkUploadService.importProducts(workbook, ImportFormat.XLSX, first);
+		assertEquals(ROWS, first.inserted.get());
+		assertEquals(0, first.failed.get());
+		assertEquals(ROWS, productRepository.count());
+
+		CountingListener again = new CountingListener();
+		bulkUploadService.importProducts(workbook, ImportFormat.XLSX, again);
+		assertEquals(0, again.inserted.get());
+		assertEquals(ROWS, again.unchanged.get());
+		assertEquals(ROWS, productRepository.count());
+	}
+
+	static void saveCatalog(CategoryRepository categoryRepository, BrandRepository brandRepository) {
+		Category category = new Category();
+		category.setName("Makeup");
+		categoryRepository.save(category);
+		Brand brand = new Brand();
+		brand.setName("Maybelline");
+		brandRepository.save(brand);
+	}
+
+	// Streamed out with SXSSF so the fixture itself never holds the rows in memory
+	static File writeWorkbook(File file, int rows) throws Exception {
+		try (SXSSFWorkbook workbook = new SXSSFWorkbook(100); OutputStream out = Files.newOutputStream(file.toPath())) {
+			Sheet sheet = workbook.createSheet("Products");
+			BulkUploadService.writeHeaderRow(workbook, sheet);
+			for (int i = 1; i <= rows; i++) {
+				Row row = sheet.createRow(i);
+				row.createCell(0).setCellValue("Matte Lipstick " + i);
+				row.createCell(1).setCellValue("Long-wearing matte finish, shade " + i);
+				row.createCell(2).setCellValue(599.99);
+				row.createCell(3).setCellValue(499.99);
+				row.createCell(4).setCellValue(i % 500);
+				row.createCell(5).setCellValue("Makeup");
+				row.createCell(6).setCellValue("Maybelline");
+				row.createCell(7).setCellValue("https://example.com/lipstick/" + i + ".jpg");
+				row.createCell(8).setCellValue("5ml");
+				row.createCell(9).setCellValue("10g");
+				row.createCell(10).setCellValue("Vitamin E, Aloe Vera");
+				row.createCell(11).setCellValue(i % 50 == 0 ? "true" : "false");
+				row.createCell(12).setCellValue("LIP-" + i);
+			}
+			workbook.write(out);
+		}
+		return file;
+	}
+
+	private static class CountingListener implements ImportProgressListener {
+
+		private final AtomicInteger inserted = new AtomicInteger();
+		private final AtomicInteger unchanged = new AtomicInteger();
+		private final AtomicInteger failed = new AtomicInteger();
+
+		@Override
+		public void rowSucceeded(int rowNumber, String productName) {
+			inserted.incrementAndGet();
+		}
+
+		@Override
+		public void rowUpdated(int rowNumber, String productName) {
+		}
+
+		@Override
+		public void rowUnchanged(int rowNumber) {
+			unchanged.incrementAndGet();
+		}
+
+		@Override
+		public void rowFailed(int rowNumber, String message) {
+			failed.incrementAndGet();
+		}
+
+		@Override
+		public void chunkCompleted(int rowsParsed) {
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,185 @@
+package com.cosmetics.ecommerce.service;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportFileReadersTests {
+
+	private static final int COLUMNS = 13;
+	private static final int BENCHMARK_ROWS = 100_000;
+	private static final int BLOCK_SIZE = 2_000;
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void parsesQuotedCsvRecords() throws Exception {
+		File csv = write("products.csv", "name,description,price\n"
+				+ "Lipstick,\"Red, matte\",599.99\n"
+				+ "\n"
+				+ "\"Serum \"\"X\"\"\",\"Line one\nline two\",  \n");
+
+		try (TextRowReader reader = new TextRowReader(csv, ImportFormat.CSV)) {
+			List<String> records = reader.readBlock(10);
+			assertEquals(2, records.size());
+
+			String[] first = reader.parse(records.get(0), COLUMNS);
+			assertEquals("Lipstick", first[0]);
+			assertEquals("Red, matte", first[1]);
+			assertEquals("599.99", first[2]);
+			assertNull(first[3]);
+
+			String[] second = reader.parse(records.get(1), COLUMNS);
+			assertEquals("Serum \"X\"", second[0]);
+			assertEquals("Line one\nline two", second[1]);
+			assertNull(second[2]);
+
+			assertThrows(IllegalArgumentException.class, () -> reader.parse("\"open,1", COLUMNS));
+		}
+	}
+
+	@Test
+	void parsesNdjsonRecords() throws Exception {
+		File ndjson = write("products.ndjson",
+				"{\"name\":\"Toner\",\"price\":10.50,\"stockQuantity\":3,\"isFeatured\":true,\"sku\":\"T-1\"}\n"
+						+ "{\"name\":\"Mask\",\"description\":null}\n"
+						+ "not json\n");
+
+		try (TextRowReader reader = new TextRowReader(ndjson, ImportFormat.NDJSON)) {
+			List<String> records = reader.readBlock(10);
+			assertEquals(3, records.size());
+
+			String[] first = reader.parse(records.get(0), COLUMNS);
+			assertEquals("Toner", first[0]);
+			assertEquals("10.5", first[2]);
+			assertEquals("3", first[4]);
+			assertEquals("true", first[11]);
+			assertEquals("T-1", first[12]);
+
+			assertNull(reader.parse(records.get(1), COLUMNS)[1]);
+			assertThrows(IllegalArgumentException.class, () -> reader.parse(records.get(2), COLUMNS));
+		}
+	}
+
+	@Test
+	void fileFormatFollowsExtension() {
+		assertEquals(ImportFormat.XLSX, ImportFormat.fromFileName("Catalog.XLSX"));
+		assertEquals(ImportFormat.CSV, ImportFormat.fromFileName("erp-export.csv"));
+		assertEquals(ImportFormat.NDJSON, ImportFormat.fromFileName("feed.jsonl"));
+		assertNull(ImportFormat.fromFileName("catalog.xls"));
+		assertNull(ImportFormat.fromFileName(null));
+	}
+
+	// Parse throughput of the same catalog as .xlsx (SAX, single thread) and .csv (parallel blocks)
+	@Tag("benchmark")
+	@Test
+	void csvParsingOutpacesWorkbookParsing() throws Exception {
+		File xlsx = writeWorkbook(BENCHMARK_ROWS);
+		File csv = writeCsv(BENCHMARK_ROWS);
+
+		// Warm-up
+		parseWorkbook(xlsx);
+		parseCsv(csv);
+
+		long start = System.nanoTime();
+		long workbookRows = parseWorkbook(xlsx);
+		long workbookNanos = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		long csvRows = parseCsv(csv);
+		long csvNanos = System.nanoTime() - start;
+
+		assertEquals(BENCHMARK_ROWS, workbookRows);
+		assertEquals(BENCHMARK_ROWS, csvRows);
+
+		System.out.printf("Import parsing, %d rows: xlsx %.0f rows/s, csv %.0f rows/s (%d cores)%n",
+				BENCHMARK_ROWS, rowsPerSecond(workbookRows, workbookNanos), rowsPerSecond(csvRows, csvNanos),
+				Runtime.getRuntime().availableProcessors());
+		assertTrue(csvNanos < workbookNanos, "CSV parsing should be faster than the workbook path");
+	}
+
+	private long parseWorkbook(File file) throws Exception {
+		AtomicLong rows = new AtomicLong();
+		XlsxRowReader.read(file, COLUMNS, values -> {
+			if (values[0] != null) {
+				rows.incrementAndGet();
+			}
+		});
+		return rows.get();
+	}
+
+	private long parseCsv(File file) throws Exception {
+		long rows = 0;
+		try (TextRowReader reader = new TextRowReader(file, ImportFormat.CSV)) {
+			List<String> block;
+			while (!(block = reader.readBlock(BLOCK_SIZE)).isEmpty()) {
+				List<String> records = block;
+				rows += IntStream.range(0, records.size()).parallel()
+						.filter(i -> reader.parse(records.get(i), COLUMNS)[0] != null)
+						.count();
+			}
+		}
+		return rows;
+	}
+
+	private File writeWorkbook(int rows) throws Exception {
+		File file = tempDir.resolve("catalog.xlsx").toFile();
+		try (SXSSFWorkbook workbook = new SXSSFWorkbook(100); OutputStream out = Files.newOutputStream(file.toPath())) {
+			Sheet sheet = workbook.createSheet("Products");
+			sheet.createRow(0).createCell(0).setCellValue("Product Name*");
+			for (int i = 1; i <= rows; i++) {
+				Row row = sheet.createRow(i);
+				String[] values = sampleRow(i);
+				for (int c = 0; c < COLUMNS; c++) {
+					row.createCell(c).setCellValue(values[c]);
+				}
+			}
+			workbook.write(out);
+		}
+		return file;
+	}
+
+	private File writeCsv(int rows) throws Exception {
+		File file = tempDir.resolve("catalog.csv").toFile();
+		try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+			writer.write("Product Name*\n");
+			for (int i = 1; i <= rows; i++) {
+				writer.write(String.join(",", sampleRow(i)).replace("Vitamin E, Aloe", "\"Vitamin E, Aloe\""));
+				writer.write('\n');
+			}
+		}
+		return file;
+	}
+
+	private String[] sampleRow(int i) {
+		return new String[]{"Product " + i, "Description of product " + i, "599.99", "499.99", String.valueOf(i % 500),
+				"Makeup", "Maybelline", "https://example.com/" + i + ".jpg", "5ml", "10g", "Vitamin E, Aloe", "true",
+				"SKU-" + i};
+	}
+
+	private File write(String name, String content) throws Exception {
+		Path path = tempDir.resolve(name);
+		Files.writeString(path, content);
+		return path.toFile();
+	}
+
+	private double rowsPerSecond(long rows, long nanos) {
+		return rows * 1_000_000_000.0 / nanos;
+	}
+}
@@ -0,0 +1,55 @@
+package com.cosmetics.ecommerce.service;
+
+import com.cosmetics.ecommerce.entity.ImportJob;
+import com.cosmetics.ecommerce.repository.ImportJobRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A starting instance fails its own unfinished imports and those nobody refreshed lately, not other instances' live ones
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:import-jobs;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"app.order.node-id=1",
+		"app.bulk-upload.stale-after-ms=60000"
+})
+@ActiveProfiles("h2")
+class ImportJobServiceTests {
+
+	@Autowired
+	private ImportJobService importJobService;
+
+	@Autowired
+	private ImportJobRepository importJobRepository;
+
+	@Test
+	void failsOnlyOwnAndStaleJobs() {
+		ImportJob own = job(1L);
+		ImportJob live = job(2L);
+		ImportJob stale = job(2L);
+		importJobRepository.heartbeat(List.of(stale.getId()), LocalDateTime.now().minusMinutes(5));
+
+		importJobService.failInterruptedJobs();
+
+		assertEquals(ImportJob.Status.FAILED, status(own));
+		assertEquals(ImportJob.Status.RUNNING, status(live));
+		assertEquals(ImportJob.Status.FAILED, status(stale));
+	}
+
+	private ImportJob job(Long ownerNode) {
+		ImportJob job = new ImportJob();
+		job.setFileName("catalog.xlsx");
+		job.setStatus(ImportJob.Status.RUNNING);
+		job.setOwnerNode(ownerNode);
+		return importJobRepository.save(job);
+	}
+
+	private ImportJob.Status status(ImportJob job) {
+		return importJobRepository.findById(job.getId()).orElseThrow().getStatus();
+	}
+}
@@ -0,0 +1,104 @@
+package com.cosmetics.ecommerce.service;
+
+import com.cosmetics.ecommerce.dto.ProductSearchRequest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngredientIndexTests {
+
+	private static final int BENCHMARK_PRODUCTS = 100_000;
+	private static final int BENCHMARK_QUERIES = 20_000;
+
+	private static final String[] INGREDIENTS = {"Aqua (Water)", "Glycerin", "Niacinamide 10%", "Methylparaben",
+			"Propylparaben", "Hyaluronic-Acid", "Shea Butter*", "Tocopherol (Vitamin E)", "Salicylic Acid 2%",
+			"Fragrance/Parfum", "Squalane", "Ceramide NP", "Zinc PCA", "Retinol", "Aloe Barbadensis Leaf Juice"};
+
+	@Test
+	void parsesFreeTextIntoNormalizedIngredients() {
+		assertEquals(Set.of("aqua", "water", "niacinamide", "hyaluronic acid", "shea butter", "fragrance", "parfum"),
+				IngredientIndex.parse("Aqua (Water), Niacinamide 10%; Hyaluronic-Acid, Shea Butter*, and Fragrance/Parfum."));
+		assertEquals(Set.of("vitamin e", "tocopherol"), IngredientIndex.parse("Vitamin E\nTocopherol, 5%"));
+		assertTrue(IngredientIndex.parse(null).isEmpty());
+		assertTrue(IngredientIndex.parse("  ").isEmpty());
+	}
+
+	@Test
+	void filtersProductsThatContainOrAreFreeFromIngredients() {
+		ProductFacetIndex index = new ProductFacetIndex();
+		index.put(entry(1, "Aqua, Niacinamide 5%, Glycerin"));
+		index.put(entry(2, "Aqua, Methylparaben, Glycerin"));
+		index.put(entry(3, "Water, Propylparaben, Niacinamide"));
+		index.put(entry(4, null));
+
+		assertEquals(List.of(1L, 3L), search(index, List.of("niacinamide"), null));
+		assertEquals(List.of(1L, 4L), search(index, null, List.of("paraben")));
+		assertEquals(List.of(1L), search(index, List.of("Niacinamide", "glycerin"), List.of("parabens", "paraben")));
+		assertEquals(List.of(1L, 2L, 3L, 4L), search(index, List.of(" "), null));
+
+		// Re-indexing a product replaces its ingredients
+		index.put(entry(2, "Aqua, Niacinamide"));
+		assertEquals(List.of(1L, 2L, 3L), search(index, List.of("niacinamide"), null));
+		assertEquals(List.of(1L, 2L, 4L), search(index, null, List.of("paraben")));
+	}
+
+	// "Free-from" exclusion over a synthetic catalog of 100k products
+	@Tag("benchmark")
+	@Test
+	void exclusionTakesMicroseconds() {
+		Random random = new Random(11);
+		IngredientIndex index = new IngredientIndex();
+		RoaringBitmap all = new RoaringBitmap();
+		for (int id = 1; id <= BENCHMARK_PRODUCTS; id++) {
+			StringBuilder ingredients = new StringBuilder();
+			for (int i = 0; i < 8; i++) {
+				ingredients.append(INGREDIENTS[random.nextInt(INGREDIENTS.length)]).append(", ");
+			}
+			ingredients.append("Extract ").append(id % 2_000);
+			index.add(id, IngredientIndex.parse(ingredients.toString()));
+			all.add(id);
+		}
+
+		String[] terms = {"paraben", "fragrance", "retinol", "salicylic acid", "extract 42"};
+		for (int i = 0; i < 10_000; i++) {
+			RoaringBitmap.andNot(all, index.matching(terms[i % terms.length]));
+		}
+
+		long[] latencies = new long[BENCHMARK_QUERIES];
+		for (int i = 0; i < BENCHMARK_QUERIES; i++) {
+			long start = System.nanoTime();
+			RoaringBitmap freeFrom = RoaringBitmap.andNot(all, index.matching(terms[i % terms.length]));
+			latencies[i] = System.nanoTime() - start;
+			assertTrue(freeFrom.getCardinality() < BENCHMARK_PRODUCTS);
+		}
+		Arrays.sort(latencies);
+
+		System.out.printf("Exclusion over %d products (%d distinct ingredients): p50 %.1f us, p99 %.1f us%n",
+				BENCHMARK_PRODUCTS, index.ingredientCount(),
+				latencies[BENCHMARK_QUERIES / 2] / 1e3, latencies[BENCHMARK_QUERIES * 99 / 100] / 1e3);
+		assertTrue(latencies[BENCHMARK_QUERIES / 2] < 1_000_000L, "median exclusion should stay under a millisecond");
+	}
+
+	private List<Long> search(ProductFacetIndex index, List<String> include, List<String> exclude) {
+		ProductSearchRequest request = new ProductSearchRequest();
+		request.setIncludeIngredients(include);
+		request.setExcludeIngredients(exclude);
+		request.setSortBy("id");
+		request.setSortOrder("asc");
+		return index.query(request, null, 0, 10, false).getProductIds();
+	}
+
+	private ProductFacetIndex.Entry entry(long id, String ingredients) {
+		return new ProductFacetIndex.Entry(id, "Product " + id, 1L, "Skin Care", 1L, "Brand", new BigDecimal("299"),
+				true, false, 0, LocalDateTime.of(2025, 1, 1, 0, 0), ingredients);
+	}
+}
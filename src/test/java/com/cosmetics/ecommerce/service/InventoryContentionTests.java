@@ -0,0 +1,230 @@
+package com.cosmetics.ecommerce.service;
+
+import com.cosmetics.ecommerce.dto.CreateOrderRequest;
+import com.cosmetics.ecommerce.dto.OrderItemRequest;
+import com.cosmetics.ecommerce.entity.Order;
+import com.cosmetics.ecommerce.entity.Product;
+import com.cosmetics.ecommerce.entity.User;
+import com.cosmetics.ecommerce.repository.OrderRepository;
+import com.cosmetics.ecommerce.repository.ProductRepository;
+import com.cosmetics.ecommerce.repository.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Many threads checking out the same product at once
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:contention;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000")
+@ActiveProfiles("h2")
+class InventoryContentionTests {
+
+	private static final int THREADS = 16;
+	private static final int STOCK = 100;
+	private static final int CHECKOUTS = 400;
+	private static final int BENCHMARK_CHECKOUTS = 1_500;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private InventoryService inventoryService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@MockitoBean
+	private EmailService emailService;
+
+	@Test
+	void hotProductIsNeverOversold() throws Exception {
+		User customer = customer("flash-sale");
+		Product imported = product("HOT-1", STOCK);
+		imported.setContentHash("imported");
+		Product product = productRepository.save(imported);
+
+		AtomicInteger outOfStock = new AtomicInteger();
+		int placed = hammer(CHECKOUTS, () -> {
+			SecurityContextHolder.getContext().setAuthentication(
+					new UsernamePasswordAuthenticationToken(customer.getUsername(), null, List.of()));
+			try {
+				orderService.createOrder(orderFor(product, 1));
+				return true;
+			} catch (RuntimeException e) {
+				assertTrue(e.getMessage().startsWith("Insufficient stock"), e.getMessage());
+				outOfStock.incrementAndGet();
+				return false;
+			} finally {
+				SecurityContextHolder.clearContext();
+			}
+		});
+
+		Product after = productRepository.findById(product.getId()).orElseThrow();
+		assertEquals(STOCK, placed);
+		assertEquals(CHECKOUTS - STOCK, outOfStock.get());
+		assertEquals(0, after.getStockQuantity());
+		assertEquals(STOCK, after.getSoldCount());
+		assertEquals(STOCK, orderRepository.findByUserId(customer.getId()).size());
+		// Re-importing the sheet the product came from must restock it
+		assertNull(after.getContentHash());
+	}
+
+	// Units sold per second on one product: the old read-check-write (with and without a row lock) against the conditional decrement
+	@Tag("benchmark")
+	@Test
+	void conditionalDecrementOutperformsReadCheckWrite() throws Exception {
+		Product unlocked = product("HOT-2", BENCHMARK_CHECKOUTS);
+		Product locked = product("HOT-3", BENCHMARK_CHECKOUTS);
+		Product conditional = product("HOT-4", BENCHMARK_CHECKOUTS);
+
+		Result readCheckWrite = benchmark(unlocked, () -> transactionTemplate.execute(status -> {
+			Product product = productRepository.findById(unlocked.getId()).orElseThrow();
+			return takeOne(product);
+		}));
+		Result lockedReadCheckWrite = benchmark(locked, () -> transactionTemplate.execute(status -> {
+			Product product = productRepository.findAllByIdForUpdate(List.of(locked.getId())).get(0);
+			return takeOne(product);
+		}));
+		Result conditionalDecrement = benchmark(conditional, () -> transactionTemplate.execute(status ->
+				inventoryService.reserveStock(Map.of(conditional.getId(), 1)).isEmpty()));
+
+		System.out.printf("%d checkouts on one product from %d threads:%n", BENCHMARK_CHECKOUTS, THREADS);
+		System.out.printf("  read-check-write:        %6.0f/s, %d units oversold%n", readCheckWrite.perSecond(), readCheckWrite.oversold);
+		System.out.printf("  locked read-check-write: %6.0f/s, %d units oversold%n", lockedReadCheckWrite.perSecond(), lockedReadCheckWrite.oversold);
+		System.out.printf("  conditional decrement:   %6.0f/s, %d units oversold%n", conditionalDecrement.perSecond(), conditionalDecrement.oversold);
+
+		assertEquals(0, conditionalDecrement.oversold);
+		assertEquals(BENCHMARK_CHECKOUTS, conditionalDecrement.placed);
+		assertTrue(conditionalDecrement.perSecond() > lockedReadCheckWrite.perSecond(),
+				"conditional decrement should sell faster than locking the row for read-check-write");
+	}
+
+	private boolean takeOne(Product product) {
+		if (product.getStockQuantity() < 1) {
+			return false;
+		}
+		product.setStockQuantity(product.getStockQuantity() - 1);
+		product.setSoldCount(product.getSoldCount() + 1);
+		productRepository.save(product);
+		return true;
+	}
+
+	private Result benchmark(Product product, BooleanSupplier checkout) throws Exception {
+		long start = System.nanoTime();
+		int placed = hammer(BENCHMARK_CHECKOUTS, checkout);
+		long elapsed = System.nanoTime() - start;
+
+		int taken = BENCHMARK_CHECKOUTS - productRepository.findById(product.getId()).orElseThrow().getStockQuantity();
+		return new Result(placed, placed - taken, elapsed);
+	}
+
+	// Run the checkouts from THREADS threads released at the same moment; returns how many succeeded
+	private int hammer(int checkouts, BooleanSupplier checkout) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch go = new CountDownLatch(1);
+		AtomicInteger placed = new AtomicInteger();
+		AtomicInteger remaining = new AtomicInteger(checkouts);
+		try {
+			List<Future<?>> workers = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				workers.add(pool.submit(() -> {
+					go.await();
+					while (remaining.getAndDecrement() > 0) {
+						if (checkout.getAsBoolean()) {
+							placed.incrementAndGet();
+						}
+					}
+					return null;
+				}));
+			}
+			go.countDown();
+			for (Future<?> worker : workers) {
+				worker.get(2, TimeUnit.MINUTES);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		return placed.get();
+	}
+
+	private User customer(String username) {
+		User customer = new User();
+		customer.setUsername(username);
+		customer.setEmail(username + "@example.com");
+		customer.setPassword("secret");
+		customer.setApproved(true);
+		customer.setAccountStatus(User.AccountStatus.APPROVED);
+		return userRepository.save(customer);
+	}
+
+	private Product product(String sku, int stock) {
+		Product product = new Product();
+		product.setName("Product " + sku);
+		product.setSku(sku);
+		product.setPrice(new BigDecimal("499.00"));
+		product.setStockQuantity(stock);
+		return productRepository.save(product);
+	}
+
+	private CreateOrderRequest orderFor(Product product, int quantity) {
+		OrderItemRequest item = new OrderItemRequest();
+		item.setProductId(product.getId());
+		item.setQuantity(quantity);
+
+		CreateOrderRequest request = new CreateOrderRequest();
+		request.setItems(List.of(item));
+		request.setPaymentMethod(Order.PaymentMethod.UPI);
+		request.setShippingAddress("12 MG Road");
+		request.setShippingCity("Pune");
+		request.setShippingState("MH");
+		request.setShippingZipCode("411001");
+		request.setShippingCountry("India");
+		request.setCustomerName("Priya");
+		request.setCustomerPhone("9800000000");
+		return request;
+	}
+
+	private static class Result {
+
+		private final int placed;
+		private final int oversold;
+		private final long elapsedNanos;
+
+		Result(int placed, int oversold, long elapsedNanos) {
+			this.placed = placed;
+			this.oversold = oversold;
+			this.elapsedNanos = elapsedNanos;
+		}
+
+		double perSecond() {
+			return placed * 1e9 / elapsedNanos;
+		}
+	}
+}
@@ -0,0 +1,161 @@
+package com.cosmetics.ecommerce.service;
+
+import com.cosmetics.ecommerce.entity.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderColumnStoreTests {
+
+	private static final int ORDERS = 10_000;
+	// 10M orders need about 4 GB of heap: mvn test -Pbenchmark -Dtest=OrderColumnStoreTests -Dbenchmark.orders=10000000 -DargLine=-Xmx4500m
+	private static final int BENCHMARK_ORDERS = Integer.getInteger("benchmark.orders", 1_000_000);
+	private static final int ROUNDS = 10;
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 14, 18, 0);
+
+	@Test
+	void appliesOrderChangesAsUpserts() {
+		OrderColumnStore store = new OrderColumnStore(null);
+		store.onOrderChanged(event(1, NOW.minusDays(1), "499.50", Order.OrderStatus.PENDING, Order.PaymentStatus.PENDING));
+		store.onOrderChanged(event(2, NOW.minusHours(1), "100.00", Order.OrderStatus.DELIVERED, Order.PaymentStatus.PAID));
+		// Order 1 is paid later; the same slot is overwritten
+		store.onOrderChanged(event(1, NOW.minusDays(1), "499.50", Order.OrderStatus.DELIVERED, Order.PaymentStatus.PAID));
+
+		assertEquals(2, store.orderCount());
+		assertEquals(2, store.countByStatus()[Order.OrderStatus.DELIVERED.ordinal()]);
+		assertEquals(0, store.countByStatus()[Order.OrderStatus.PENDING.ordinal()]);
+		assertArrayEquals(new long[]{10000, 59950}, store.paidRevenueAfter(NOW.minusHours(2), LocalDateTime.MIN));
+
+		int today = (int) NOW.toLocalDate().toEpochDay();
+		assertArrayEquals(new long[]{49950, 10000}, store.paidRevenueByDay(today - 1, today));
+	}
+
+	// Dashboard aggregations over the column store against the stream-over-entities code it replaced
+	@Test
+	void aggregatesMatchStreamingOrderEntities() {
+		compareWithEntityStreams(ORDERS);
+	}
+
+	@Tag("benchmark")
+	@Test
+	void aggregatesFasterThanStreamingOrderEntities() {
+		timed = true;
+		compareWithEntityStreams(BENCHMARK_ORDERS);
+
+		// Entities and columns alternate in medianNanos
+		for (int i = 0; i < medianNanos.size(); i += 2) {
+			assertTrue(medianNanos.get(i + 1) < medianNanos.get(i), "column store should aggregate faster than streaming entities");
+		}
+	}
+
+	private void compareWithEntityStreams(int orderCount) {
+		this.orderCount = orderCount;
+		Random random = new Random(42);
+		Order.OrderStatus[] statuses = Order.OrderStatus.values();
+		// Shared values keep the entity list small enough for the default test heap
+		LocalDateTime[] times = new LocalDateTime[24 * 365];
+		for (int i = 0; i < times.length; i++) {
+			times[i] = NOW.minusHours(i);
+		}
+		BigDecimal[] amounts = new BigDecimal[1000];
+		for (int i = 0; i < amounts.length; i++) {
+			amounts[i] = BigDecimal.valueOf(19_900 + i * 137L, 2);
+		}
+
+		OrderColumnStore store = new OrderColumnStore(null);
+		List<Order> orders = new ArrayList<>(orderCount);
+		for (int i = 0; i < orderCount; i++) {
+			Order order = new Order();
+			order.setId((long) i);
+			order.setCreatedAt(times[random.nextInt(times.length)]);
+			order.setTotalAmount(amounts[random.nextInt(amounts.length)]);
+			order.setStatus(statuses[random.nextInt(statuses.length)]);
+			order.setPaymentStatus(random.nextInt(3) == 0 ? Order.PaymentStatus.PENDING : Order.PaymentStatus.PAID);
+			orders.add(order);
+			store.onOrderChanged(OrderChangedEvent.of(order));
+		}
+
+		LocalDateTime startOfDay = NOW.toLocalDate().atStartOfDay();
+		LocalDateTime startOfWeek = NOW.minusDays(7);
+		LocalDateTime startOfMonth = NOW.withDayOfMonth(1).toLocalDate().atStartOfDay();
+		LocalDate trendStart = NOW.toLocalDate().minusDays(30);
+
+		// Revenue summary: four filtered streams, as AnalyticsService.calculateRevenue did
+		double[] streamed = time("revenue summary, entities", () -> new double[]{
+				revenueAfter(orders, startOfDay), revenueAfter(orders, startOfWeek),
+				revenueAfter(orders, startOfMonth), revenueAfter(orders, LocalDateTime.MIN)});
+		long[] columnar = time("revenue summary, columns",
+				() -> store.paidRevenueAfter(startOfDay, startOfWeek, startOfMonth, LocalDateTime.MIN));
+		for (int i = 0; i < columnar.length; i++) {
+			assertEquals(streamed[i], OrderColumnStore.paiseToAmount(columnar[i]), 0.01 * orderCount / 1000);
+		}
+
+		Map<String, Long> streamedStatuses = time("status distribution, entities", () -> orders.stream()
+				.collect(Collectors.groupingBy(order -> order.getStatus().name(), Collectors.counting())));
+		long[] columnarStatuses = time("status distribution, columns", store::countByStatus);
+		for (Order.OrderStatus status : statuses) {
+			assertEquals(streamedStatuses.getOrDefault(status.name(), 0L), columnarStatuses[status.ordinal()]);
+		}
+
+		Map<LocalDate, Double> streamedTrend = time("30 day trend, entities", () -> orders.stream()
+				.filter(order -> !order.getCreatedAt().toLocalDate().isBefore(trendStart))
+				.filter(order -> order.getPaymentStatus() == Order.PaymentStatus.PAID)
+				.collect(Collectors.groupingBy(order -> order.getCreatedAt().toLocalDate(),
+						Collectors.summingDouble(order -> order.getTotalAmount().doubleValue()))));
+		long[] columnarTrend = time("30 day trend, columns", () -> store.paidRevenueByDay(
+				(int) trendStart.toEpochDay(), (int) NOW.toLocalDate().toEpochDay()));
+		for (int day = 0; day < columnarTrend.length; day++) {
+			assertEquals(streamedTrend.getOrDefault(trendStart.plusDays(day), 0.0),
+					OrderColumnStore.paiseToAmount(columnarTrend[day]), 0.01 * orderCount / 1000);
+		}
+	}
+
+	private final List<Long> medianNanos = new ArrayList<>();
+	private int orderCount;
+	private boolean timed;
+
+	// Runs the aggregation once, or when benchmarking reports its median over ROUNDS runs
+	private <T> T time(String label, Supplier<T> aggregation) {
+		T result = aggregation.get();
+		if (!timed) {
+			return result;
+		}
+		long[] nanos = new long[ROUNDS];
+		for (int i = 0; i < ROUNDS; i++) {
+			long start = System.nanoTime();
+			result = aggregation.get();
+			nanos[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(nanos);
+		long median = nanos[ROUNDS / 2];
+		medianNanos.add(median);
+		System.out.printf("%s over %d orders: %.2f ms%n", label, orderCount, median / 1e6);
+		return result;
+	}
+
+	private double revenueAfter(List<Order> orders, LocalDateTime startDate) {
+		return orders.stream()
+				.filter(order -> order.getCreatedAt().isAfter(startDate))
+				.filter(order -> order.getPaymentStatus() == Order.PaymentStatus.PAID)
+				.mapToDouble(order -> order.getTotalAmount().doubleValue())
+				.sum();
+	}
+
+	private OrderChangedEvent event(long id, LocalDateTime createdAt, String amount,
+									Order.OrderStatus status, Order.PaymentStatus paymentStatus) {
+		return new OrderChangedEvent(id, createdAt, new BigDecimal(amount), status, paymentStatus);
+	}
+}
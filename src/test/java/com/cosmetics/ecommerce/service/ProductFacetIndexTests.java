@@ -0,0 +1,231 @@
+package com.cosmetics.ecommerce.service;
+
+import com.cosmetics.ecommerce.dto.FacetCountDTO;
+import com.cosmetics.ecommerce.dto.ProductFacetsDTO;
+import com.cosmetics.ecommerce.dto.ProductSearchRequest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductFacetIndexTests {
+
+	private static final int BENCHMARK_PRODUCTS = 100_000;
+	private static final int BENCHMARK_QUERIES = 2_000;
+
+	private static final LocalDateTime EPOCH = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+	@Test
+	void combinesFiltersAndCountsEachFacetWithoutItsOwnFilter() {
+		ProductFacetIndex index = new ProductFacetIndex();
+		index.put(entry(1, "Velvet Lipstick", 1, 10, "499", 5, false, 1));
+		index.put(entry(2, "Lip Balm", 1, 11, "199", 0, true, 2));
+		index.put(entry(3, "Niacinamide Serum", 2, 10, "599", 8, true, 3));
+		index.put(entry(4, "Matte Lipstick", 1, 10, "1299", 2, true, 4));
+
+		ProductSearchRequest request = new ProductSearchRequest();
+		request.setCategoryId(1L);
+		request.setBrandId(10L);
+		request.setMaxPrice(1000.0);
+		ProductFacetIndex.Result result = index.query(request, null, 0, 10, true);
+
+		assertEquals(List.of(1L), result.getProductIds());
+		assertEquals(1, result.getTotalMatches());
+
+		ProductFacetsDTO facets = result.getFacets();
+		// Category counted with brand and price filters only: products 1 and 3
+		assertEquals(Map.of(1L, 1L, 2L, 1L), counts(facets.getCategories()));
+		// Brand counted with category and price filters only: products 1 and 2
+		assertEquals(Map.of(10L, 1L, 11L, 1L), counts(facets.getBrands()));
+		// Price counted with category and brand filters: 499 and 1299
+		assertEquals(1, facets.getPriceRanges().get(1).getCount());
+		assertEquals(1, facets.getPriceRanges().get(3).getCount());
+		assertEquals(1, facets.getInStock());
+		assertEquals(0, facets.getFeatured());
+
+		// Keyword hits keep their order; the filter drops product 2
+		request = new ProductSearchRequest();
+		request.setInStock(true);
+		assertEquals(List.of(4L, 1L), index.query(request, List.of(4L, 2L, 1L), 0, 10, false).getProductIds());
+		// ...unless the request asks for another sort
+		request.setSortBy("price");
+		request.setSortOrder("asc");
+		assertEquals(List.of(1L, 4L), index.query(request, List.of(4L, 2L, 1L), 0, 10, false).getProductIds());
+
+		// Sorting, paging and updates
+		request = new ProductSearchRequest();
+		request.setSortBy("price");
+		request.setSortOrder("asc");
+		assertEquals(List.of(1L, 3L), index.query(request, null, 1, 2, false).getProductIds());
+		ProductSearchRequest unsupported = new ProductSearchRequest();
+		unsupported.setSortBy("stockQuantity");
+		assertThrows(RuntimeException.class, () -> index.query(unsupported, null, 0, 10, false));
+
+		index.put(entry(2, "Lip Balm", 1, 11, "199", 3, true, 2));
+		index.remove(3);
+		request = new ProductSearchRequest();
+		request.setInStock(true);
+		request.setFeatured(true);
+		assertEquals(List.of(4L, 2L), index.query(request, null, 0, 10, false).getProductIds());
+		assertEquals(3, index.size());
+	}
+
+	// Random catalogs and filter combinations checked against a brute-force scan
+	@Test
+	void matchesBruteForce() {
+		Random random = new Random(42);
+		ProductFacetIndex index = new ProductFacetIndex();
+		Map<Long, Product> live = new HashMap<>();
+
+		for (int step = 0; step < 5_000; step++) {
+			long id = random.nextInt(2_000) + 1;
+			if (random.nextInt(5) == 0) {
+				index.remove(id);
+				live.remove(id);
+			} else {
+				Product product = randomProduct(id, random);
+				index.put(product.toEntry());
+				live.put(id, product);
+			}
+		}
+
+		for (int q = 0; q < 500; q++) {
+			ProductSearchRequest request = randomRequest(random);
+			ProductFacetIndex.Result result = index.query(request, null, 0, 20, true);
+
+			List<Product> expected = live.values().stream()
+					.filter(product -> product.matches(request, -1))
+					.sorted(Comparator.comparingLong((Product product) -> product.createdAt).thenComparingLong(product -> product.id).reversed())
+					.collect(Collectors.toList());
+			assertEquals(expected.size(), result.getTotalMatches());
+			assertEquals(expected.stream().limit(20).map(product -> product.id).collect(Collectors.toList()), result.getProductIds());
+
+			Map<Long, Long> categories = live.values().stream()
+					.filter(product -> product.matches(request, 0))
+					.collect(Collectors.groupingBy(product -> product.categoryId, Collectors.counting()));
+			assertEquals(categories, counts(result.getFacets().getCategories()));
+
+			long inStock = live.values().stream().filter(product -> product.matches(request, 3) && product.stock > 0).count();
+			assertEquals(inStock, result.getFacets().getInStock());
+		}
+	}
+
+	// Filtered query plus all facet counts over a synthetic catalog of 100k products
+	@Tag("benchmark")
+	@Test
+	void facetedQueryLatencyAtOneHundredThousandProducts() {
+		Random random = new Random(7);
+		ProductFacetIndex index = new ProductFacetIndex();
+		for (long id = 1; id <= BENCHMARK_PRODUCTS; id++) {
+			index.put(randomProduct(id, random).toEntry());
+		}
+
+		ProductSearchRequest[] requests = new ProductSearchRequest[64];
+		for (int i = 0; i < requests.length; i++) {
+			requests[i] = randomRequest(random);
+		}
+		for (int i = 0; i < 500; i++) {
+			index.query(requests[i % requests.length], null, 0, 12, true);
+		}
+
+		long[] latencies = new long[BENCHMARK_QUERIES];
+		for (int i = 0; i < BENCHMARK_QUERIES; i++) {
+			long start = System.nanoTime();
+			ProductFacetIndex.Result result = index.query(requests[i % requests.length], null, 0, 12, true);
+			latencies[i] = System.nanoTime() - start;
+			assertTrue(result.getProductIds().size() <= 12);
+		}
+		Arrays.sort(latencies);
+
+		System.out.printf("Faceted query over %d products: p50 %.2f ms, p99 %.2f ms%n", BENCHMARK_PRODUCTS,
+				latencies[BENCHMARK_QUERIES / 2] / 1e6, latencies[BENCHMARK_QUERIES * 99 / 100] / 1e6);
+		assertTrue(latencies[BENCHMARK_QUERIES / 2] < 50_000_000L, "median query should stay well under 50 ms");
+	}
+
+	private ProductSearchRequest randomRequest(Random random) {
+		ProductSearchRequest request = new ProductSearchRequest();
+		if (random.nextBoolean()) {
+			request.setCategoryId((long) random.nextInt(25));
+		}
+		if (random.nextInt(3) == 0) {
+			request.setBrandId((long) random.nextInt(400));
+		}
+		if (random.nextBoolean()) {
+			request.setMinPrice((double) random.nextInt(1500));
+		}
+		if (random.nextBoolean()) {
+			request.setMaxPrice(request.getMinPrice() != null ? request.getMinPrice() + random.nextInt(3000) : random.nextInt(6000));
+		}
+		request.setInStock(random.nextBoolean() ? true : null);
+		request.setFeatured(random.nextInt(4) == 0 ? true : null);
+		return request;
+	}
+
+	private Product randomProduct(long id, Random random) {
+		Product product = new Product();
+		product.id = id;
+		product.categoryId = random.nextInt(25);
+		product.brandId = random.nextInt(400);
+		product.pricePaise = 5_000 + random.nextInt(800_000);
+		product.stock = random.nextInt(4) == 0 ? 0 : random.nextInt(100);
+		product.featured = random.nextInt(10) == 0;
+		product.createdAt = random.nextInt(1_000_000);
+		return product;
+	}
+
+	private ProductFacetIndex.Entry entry(long id, String name, long categoryId, long brandId, String price,
+										  int stock, boolean featured, int minutes) {
+		return new ProductFacetIndex.Entry(id, name, categoryId, "Category " + categoryId, brandId, "Brand " + brandId,
+				new BigDecimal(price), stock > 0, featured, 0, EPOCH.plusMinutes(minutes), null);
+	}
+
+	private Map<Long, Long> counts(List<FacetCountDTO> facetCounts) {
+		return facetCounts.stream().collect(Collectors.toMap(FacetCountDTO::getId, FacetCountDTO::getCount));
+	}
+
+	// The brute-force side of the comparison
+	private static class Product {
+		private long id;
+		private long categoryId;
+		private long brandId;
+		private long pricePaise;
+		private int stock;
+		private boolean featured;
+		private long createdAt;
+
+		ProductFacetIndex.Entry toEntry() {
+			return new ProductFacetIndex.Entry(id, "Product " + id, categoryId, "Category " + categoryId,
+					brandId, "Brand " + brandId, BigDecimal.valueOf(pricePaise, 2), stock > 0, featured, 0,
+					EPOCH.plusSeconds(createdAt), null);
+		}
+
+		// Every filter of the request except the one at position skip (0 category, 3 in stock)
+		boolean matches(ProductSearchRequest request, int skip) {
+			List<Predicate<Product>> filters = new ArrayList<>();
+			filters.add(product -> request.getCategoryId() == null || request.getCategoryId() == product.categoryId);
+			filters.add(product -> request.getBrandId() == null || request.getBrandId() == product.brandId);
+			filters.add(product -> (request.getMinPrice() == null || product.pricePaise >= Math.round(request.getMinPrice() * 100))
+					&& (request.getMaxPrice() == null || product.pricePaise <= Math.round(request.getMaxPrice() * 100)));
+			filters.add(product -> !Boolean.TRUE.equals(request.getInStock()) || product.stock > 0);
+			filters.add(product -> !Boolean.TRUE.equals(request.getFeatured()) || product.featured);
+			for (int i = 0; i < filters.size(); i++) {
+				if (i != skip && !filters.get(i).test(this)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package com.cosmetics.ecommerce.service;
+
+import com.cosmetics.ecommerce.entity.Brand;
+import com.cosmetics.ecommerce.entity.Category;
+import com.cosmetics.ecommerce.entity.Product;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductTextIndexTests {
+
+	private static final int BENCHMARK_PRODUCTS = 100_000;
+	private static final int BENCHMARK_QUERIES = 2_000;
+
+	private static final String[] NOUNS = {"lipstick", "serum", "moisturizer", "cleanser", "toner", "mascara",
+			"foundation", "sunscreen", "shampoo", "conditioner", "primer", "blush", "eyeliner", "mask", "balm"};
+	private static final String[] ADJECTIVES = {"matte", "hydrating", "vitamin", "glow", "velvet", "herbal",
+			"daily", "intense", "gentle", "radiant", "silk", "ultra", "organic", "rose", "charcoal"};
+	private static final String[] INGREDIENTS = {"niacinamide", "retinol", "hyaluronic acid", "glycerin",
+			"shea butter", "aloe vera", "vitamin e", "salicylic acid", "ceramides", "squalane", "paraben"};
+
+	@Test
+	void ranksNameMatchesFirstAndMatchesPrefixesAndStems() throws Exception {
+		try (ProductTextIndex index = new ProductTextIndex(new ByteBuffersDirectory())) {
+			index.index(List.of(
+					product(1, "Velvet Lipstick", "Long lasting colour", "Makeup", "Lakme", "castor oil"),
+					product(2, "Lip Balm", "Soft lips, pairs well with any lipstick", "Lip Care", "Nivea", "shea butter"),
+					product(3, "Niacinamide Serum", "Brightening serum", "Skin Care", "Minimalist", "niacinamide, glycerin")));
+			index.commit();
+
+			assertEquals(List.of(1L, 2L), index.search("lipstick", 0, 10).getProductIds());
+			assertEquals(List.of(1L, 2L), index.search("lipsticks", 0, 10).getProductIds());
+			assertEquals(List.of(1L), index.search("velv", 0, 10).getProductIds());
+			assertEquals(List.of(3L), index.search("serum glycerin", 0, 10).getProductIds());
+			assertEquals(List.of(2L), index.search("nivea", 0, 10).getProductIds());
+			assertTrue(index.search("the", 0, 10).getProductIds().isEmpty());
+
+			// Second page and total
+			ProductTextIndex.SearchHits page = index.search("lipstick", 1, 1);
+			assertEquals(List.of(2L), page.getProductIds());
+			assertEquals(2, page.getTotalHits());
+
+			Product deactivated = product(1, "Velvet Lipstick", null, "Makeup", "Lakme", null);
+			deactivated.setIsActive(false);
+			index.index(List.of(deactivated));
+			index.remove(List.of(3L));
+			index.commit();
+
+			assertEquals(List.of(2L), index.search("lipstick", 0, 10).getProductIds());
+			assertEquals(1, index.documentCount());
+		}
+	}
+
+	// Query latency over a synthetic catalog of 100k products
+	@Tag("benchmark")
+	@Test
+	void searchLatencyAtOneHundredThousandProducts() throws Exception {
+		try (ProductTextIndex index = new ProductTextIndex(new ByteBuffersDirectory())) {
+			long start = System.nanoTime();
+			List<Product> batch = new ArrayList<>();
+			for (int i = 1; i <= BENCHMARK_PRODUCTS; i++) {
+				batch.add(syntheticProduct(i));
+				if (batch.size() == 1_000) {
+					index.index(batch);
+					batch.clear();
+				}
+			}
+			index.commit();
+			long indexMillis = (System.nanoTime() - start) / 1_000_000;
+			assertEquals(BENCHMARK_PRODUCTS, index.documentCount());
+
+			String[] queries = {"lipstick", "hydrating serum", "niacinamide", "matte lip", "rose toner spf", "glo"};
+			for (int i = 0; i < 200; i++) {
+				index.search(queries[i % queries.length], 0, 12);
+			}
+
+			long[] latencies = new long[BENCHMARK_QUERIES];
+			for (int i = 0; i < BENCHMARK_QUERIES; i++) {
+				long queryStart = System.nanoTime();
+				ProductTextIndex.SearchHits hits = index.search(queries[i % queries.length], 0, 12);
+				latencies[i] = System.nanoTime() - queryStart;
+				assertTrue(hits.getProductIds().size() <= 12);
+			}
+			Arrays.sort(latencies);
+
+			System.out.printf("Search over %d products (indexed in %d ms): p50 %.2f ms, p99 %.2f ms%n",
+					BENCHMARK_PRODUCTS, indexMillis,
+					latencies[BENCHMARK_QUERIES / 2] / 1e6, latencies[BENCHMARK_QUERIES * 99 / 100] / 1e6);
+			assertTrue(latencies[BENCHMARK_QUERIES / 2] < 50_000_000L, "median search should stay well under 50 ms");
+		}
+	}
+
+	private Product syntheticProduct(int i) {
+		String noun = NOUNS[i % NOUNS.length];
+		String adjective = ADJECTIVES[(i / NOUNS.length) % ADJECTIVES.length];
+		return product(i, adjective + " " + noun + " " + i,
+				"A " + adjective + " " + noun + " for everyday use",
+				"Category " + (i % 25), "Brand " + (i % 400),
+				INGREDIENTS[i % INGREDIENTS.length] + ", " + INGREDIENTS[(i * 7) % INGREDIENTS.length]);
+	}
+
+	private Product product(long id, String name, String description, String category, String brand, String ingredients) {
+		Category productCategory = new Category();
+		productCategory.setName(category);
+		Brand productBrand = new Brand();
+		productBrand.setName(brand);
+
+		Product product = new Product();
+		product.setId(id);
+		product.setName(name);
+		product.setDescription(description);
+		product.setCategory(productCategory);
+		product.setBrand(productBrand);
+		product.setIngredients(ingredients);
+		return product;
+	}
+}
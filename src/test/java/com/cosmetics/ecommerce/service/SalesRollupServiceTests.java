@@ -0,0 +1,90 @@
+package com.cosmetics.ecommerce.service;
+
+import com.cosmetics.ecommerce.entity.DailySalesRollup;
+import com.cosmetics.ecommerce.entity.Order;
+import com.cosmetics.ecommerce.entity.OrderItem;
+import com.cosmetics.ecommerce.repository.DailySalesRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Order transactions only buffer their rollup delta; the table is written by flush()
+@SpringBootTest(properties = "app.sales-rollup.flush-interval-ms=3600000")
+@ActiveProfiles("h2")
+class SalesRollupServiceTests {
+
+	private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 3, 14, 10, 30);
+
+	@Autowired
+	private SalesRollupService salesRollupService;
+
+	@Autowired
+	private DailySalesRollupRepository rollupRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	void emptyRollup() {
+		salesRollupService.rebuild();
+	}
+
+	@Test
+	void committedOrdersReachTheRollupOnFlush() {
+		transactionTemplate.executeWithoutResult(status -> salesRollupService.recordOrderCreated(order(2, Order.PaymentStatus.PAID)));
+		transactionTemplate.executeWithoutResult(status -> salesRollupService.recordOrderCreated(order(3, Order.PaymentStatus.PENDING)));
+
+		// Nothing is written inside or right after the order transaction
+		assertEquals(0, rollupRepository.count());
+
+		salesRollupService.flush();
+
+		DailySalesRollup day = rollupRepository.findById(CREATED_AT.toLocalDate()).orElseThrow();
+		assertEquals(2, day.getOrderCount());
+		assertEquals(5, day.getItemsSold());
+		assertEquals(0, new BigDecimal("499.00").compareTo(day.getPaidRevenue()));
+
+		// A second flush adds to the existing row
+		Order cancelled = order(2, Order.PaymentStatus.PAID);
+		cancelled.setStatus(Order.OrderStatus.CANCELLED);
+		transactionTemplate.executeWithoutResult(status ->
+				salesRollupService.recordOrderUpdated(cancelled, Order.OrderStatus.PENDING, Order.PaymentStatus.PAID));
+		salesRollupService.flush();
+
+		day = rollupRepository.findById(CREATED_AT.toLocalDate()).orElseThrow();
+		assertEquals(1, day.getOrderCount());
+		assertEquals(3, day.getItemsSold());
+	}
+
+	@Test
+	void rolledBackOrdersNeverReachTheRollup() {
+		transactionTemplate.executeWithoutResult(status -> {
+			salesRollupService.recordOrderCreated(order(1, Order.PaymentStatus.PAID));
+			status.setRollbackOnly();
+		});
+
+		salesRollupService.flush();
+
+		assertEquals(0, rollupRepository.count());
+	}
+
+	private Order order(int quantity, Order.PaymentStatus paymentStatus) {
+		Order order = new Order();
+		order.setCreatedAt(CREATED_AT);
+		order.setStatus(Order.OrderStatus.PENDING);
+		order.setPaymentStatus(paymentStatus);
+		order.setTotalAmount(new BigDecimal("499.00"));
+		OrderItem item = new OrderItem();
+		item.setQuantity(quantity);
+		order.getOrderItems().add(item);
+		return order;
+	}
+}
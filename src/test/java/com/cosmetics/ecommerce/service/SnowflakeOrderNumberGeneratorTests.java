@@ -0,0 +1,83 @@
+package com.cosmetics.ecommerce.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeOrderNumberGeneratorTests {
+
+	private static final int THREADS = 8;
+	private static final int IDS_PER_THREAD = 500_000;
+
+	@Test
+	void generatesUniqueIdsAcrossThreads() throws Exception {
+		SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(7);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+		try {
+			List<Future<long[]>> futures = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				futures.add(executor.submit(() -> {
+					long[] ids = new long[IDS_PER_THREAD];
+					for (int i = 0; i < IDS_PER_THREAD; i++) {
+						ids[i] = generator.nextId();
+					}
+					return ids;
+				}));
+			}
+
+			long[] all = new long[THREADS * IDS_PER_THREAD];
+			int offset = 0;
+			for (Future<long[]> future : futures) {
+				long[] ids = future.get();
+
+				// Each thread must observe strictly increasing ids
+				for (int i = 1; i < ids.length; i++) {
+					assertTrue(ids[i] > ids[i - 1]);
+				}
+
+				System.arraycopy(ids, 0, all, offset, ids.length);
+				offset += ids.length;
+			}
+
+			Arrays.sort(all);
+			for (int i = 1; i < all.length; i++) {
+				assertNotEquals(all[i - 1], all[i], "Duplicate id " + all[i]);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void differentNodesNeverCollide() {
+		SnowflakeOrderNumberGenerator first = new SnowflakeOrderNumberGenerator(1);
+		SnowflakeOrderNumberGenerator second = new SnowflakeOrderNumberGenerator(2);
+
+		for (int i = 0; i < 100_000; i++) {
+			assertNotEquals(first.nextId(), second.nextId());
+		}
+	}
+
+	@Test
+	void orderNumbersKeepPrefix() {
+		String orderNumber = new SnowflakeOrderNumberGenerator(0).nextOrderNumber();
+
+		assertTrue(orderNumber.startsWith("ORD"));
+		assertTrue(orderNumber.length() > 3);
+	}
+
+	@Test
+	void rejectsOutOfRangeNodeId() {
+		assertThrows(IllegalArgumentException.class, () -> new SnowflakeOrderNumberGenerator(1024));
+		assertThrows(IllegalArgumentException.class, () -> new SnowflakeOrderNumberGenerator(-1));
+	}
+
+}
@@ -0,0 +1,119 @@
+package com.cosmetics.ecommerce.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuggestionTrieTests {
+
+	private static final String[] WORDS = {"rose", "rosehip", "serum", "sera", "lip", "lipstick", "liner",
+			"matte", "mask", "glow", "gloss", "toner", "tone", "velvet", "vitamin", "c"};
+
+	@Test
+	void suggestsByWordStartOrderedByWeight() {
+		SuggestionTrie trie = new SuggestionTrie();
+		trie.put(new SuggestionTrie.Suggestion("product", 1L, "Velvet Matte Lipstick", 50));
+		trie.put(new SuggestionTrie.Suggestion("product", 2L, "Lip Gloss", 80));
+		trie.put(new SuggestionTrie.Suggestion("brand", 3L, "Lakme", 500));
+
+		assertEquals(List.of("Lakme", "Lip Gloss", "Velvet Matte Lipstick"), texts(trie.suggest("l", 10)));
+		assertEquals(List.of("Lip Gloss", "Velvet Matte Lipstick"), texts(trie.suggest("LIP", 10)));
+		assertEquals(List.of("Velvet Matte Lipstick"), texts(trie.suggest("lips", 10)));
+		assertEquals(List.of("Velvet Matte Lipstick"), texts(trie.suggest("matte li", 10)));
+		assertEquals(List.of("Lakme"), texts(trie.suggest("l", 1)));
+		assertTrue(trie.suggest("x", 10).isEmpty());
+		assertTrue(trie.suggest("  ", 10).isEmpty());
+
+		// Re-weighting and removal
+		trie.put(new SuggestionTrie.Suggestion("product", 1L, "Velvet Matte Lipstick", 90));
+		assertEquals(List.of("Velvet Matte Lipstick", "Lip Gloss"), texts(trie.suggest("lip", 10)));
+		trie.remove("product:1");
+		assertEquals(List.of("Lip Gloss"), texts(trie.suggest("lip", 10)));
+		assertTrue(trie.suggest("velvet", 10).isEmpty());
+	}
+
+	// Random puts, re-weights and removals checked against a brute-force scan
+	@Test
+	void matchesBruteForceAfterRandomChanges() {
+		Random random = new Random(42);
+		SuggestionTrie trie = new SuggestionTrie();
+		Map<Long, SuggestionTrie.Suggestion> live = new HashMap<>();
+
+		for (int step = 0; step < 20_000; step++) {
+			long id = random.nextInt(500);
+			if (random.nextInt(4) == 0) {
+				trie.remove("product:" + id);
+				live.remove(id);
+			} else {
+				String text = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+				SuggestionTrie.Suggestion suggestion = new SuggestionTrie.Suggestion("product", id, text, random.nextInt(100));
+				trie.put(suggestion);
+				live.put(id, suggestion);
+			}
+
+			if (step % 500 == 0) {
+				for (String prefix : List.of("r", "ros", "rose", "rosehip", "se", "ser", "l", "lip", "lipst", "c", "glo", "v", "to")) {
+					assertEquals(bruteForce(live.values(), prefix), keys(trie.suggest(prefix, 10)), prefix);
+				}
+			}
+		}
+		assertEquals(live.size(), trie.size());
+	}
+
+	@Tag("benchmark")
+	@Test
+	void lookupTakesMicroseconds() {
+		SuggestionTrie trie = new SuggestionTrie();
+		Random random = new Random(7);
+		for (long id = 0; id < 100_000; id++) {
+			String text = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + id;
+			trie.put(new SuggestionTrie.Suggestion("product", id, text, random.nextInt(10_000)));
+		}
+
+		String[] prefixes = {"l", "li", "lip", "rose", "se", "gl", "vit", "to", "m", "ve"};
+		for (int i = 0; i < 100_000; i++) {
+			trie.suggest(prefixes[i % prefixes.length], 8);
+		}
+
+		int lookups = 200_000;
+		long start = System.nanoTime();
+		for (int i = 0; i < lookups; i++) {
+			assertFalse(trie.suggest(prefixes[i % prefixes.length], 8).isEmpty());
+		}
+		double micros = (System.nanoTime() - start) / 1_000.0 / lookups;
+
+		System.out.printf("Suggest over 100000 products: %.2f us per lookup%n", micros);
+		assertTrue(micros < 100, "lookups should take microseconds");
+	}
+
+	private List<String> bruteForce(Iterable<SuggestionTrie.Suggestion> suggestions, String prefix) {
+		List<SuggestionTrie.Suggestion> matches = new ArrayList<>();
+		for (SuggestionTrie.Suggestion suggestion : suggestions) {
+			String text = SuggestionTrie.normalize(suggestion.getText());
+			if (text.startsWith(prefix) || text.contains(" " + prefix)) {
+				matches.add(suggestion);
+			}
+		}
+		return matches.stream()
+				.sorted((a, b) -> a.outranks(b) ? -1 : b.outranks(a) ? 1 : 0)
+				.limit(10)
+				.map(SuggestionTrie.Suggestion::getKey)
+				.collect(Collectors.toList());
+	}
+
+	private List<String> keys(List<SuggestionTrie.Suggestion> suggestions) {
+		return suggestions.stream().map(SuggestionTrie.Suggestion::getKey).collect(Collectors.toList());
+	}
+
+	private List<String> texts(List<SuggestionTrie.Suggestion> suggestions) {
+		return suggestions.stream().map(SuggestionTrie.Suggestion::getText).collect(Collectors.toList());
+	}
+}